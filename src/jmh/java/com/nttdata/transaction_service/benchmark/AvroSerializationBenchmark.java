@@ -0,0 +1,156 @@
+package com.nttdata.transaction_service.benchmark;
+
+import com.ettdata.avro.AccountValidationRequest;
+import com.ettdata.avro.AccountValidationResponse;
+import com.nttdata.transaction_service.infrastructure.adapter.AccountValidationRecordFactory;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización Avro (payload binario, sin framing del schema registry) de los mensajes de validación.
+ * Compara la codificación del monto: double legado (union nullable, boxing), unidades mínimas
+ * (long primitivo) y la transición con ambos campos.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AvroSerializationBenchmark {
+
+    private final SpecificDatumWriter<AccountValidationRequest> requestWriter =
+            new SpecificDatumWriter<>(AccountValidationRequest.class);
+    private final SpecificDatumReader<AccountValidationRequest> requestReader =
+            new SpecificDatumReader<>(AccountValidationRequest.class);
+    private final SpecificDatumWriter<AccountValidationResponse> responseWriter =
+            new SpecificDatumWriter<>(AccountValidationResponse.class);
+    private final SpecificDatumReader<AccountValidationResponse> responseReader =
+            new SpecificDatumReader<>(AccountValidationResponse.class);
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+    private BinaryEncoder encoder;
+    private BinaryDecoder decoder;
+
+    private final BigDecimal amount = new BigDecimal("150.25");
+
+    private AccountValidationRequest request;
+    private AccountValidationRequest legacyRequest;
+    private AccountValidationRequest minorUnitsRequest;
+    private AccountValidationResponse response;
+    private byte[] requestBytes;
+    private byte[] legacyRequestBytes;
+    private byte[] minorUnitsRequestBytes;
+    private byte[] responseBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        request = AccountValidationRequest.newBuilder()
+                .setTransactionId("6f1c1f1e-3b7a-4c43-9a63-0f3c4d2a1b55")
+                .setAccountNumber("1234567890")
+                .setTransactionType("WITHDRAWAL")
+                .setAmount(150.25)
+                .setAmountMinorUnits(15025L)
+                .setTargetAccountNumber(null)
+                .build();
+        legacyRequest = AccountValidationRequest.newBuilder(request)
+                .setAmountMinorUnits(0L)
+                .build();
+        minorUnitsRequest = AccountValidationRequest.newBuilder(request)
+                .setAmount(null)
+                .build();
+        response = AccountValidationResponse.newBuilder()
+                .setTransactionId("6f1c1f1e-3b7a-4c43-9a63-0f3c4d2a1b55")
+                .setAccountNumber("1234567890")
+                .setCodResponse(200)
+                .setMessageResponse("Operación validada")
+                .build();
+        requestBytes = serializeRequest();
+        legacyRequestBytes = write(legacyRequest);
+        minorUnitsRequestBytes = write(minorUnitsRequest);
+        responseBytes = serializeResponse();
+    }
+
+    @Benchmark
+    public byte[] serializeRequest() throws IOException {
+        out.reset();
+        encoder = EncoderFactory.get().binaryEncoder(out, encoder);
+        requestWriter.write(request, encoder);
+        encoder.flush();
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public AccountValidationRequest deserializeRequest() throws IOException {
+        decoder = DecoderFactory.get().binaryDecoder(requestBytes, decoder);
+        return requestReader.read(null, decoder);
+    }
+
+    // ========== AMOUNT ENCODING ==========
+
+    @Benchmark
+    public byte[] serializeLegacyAmount() throws IOException {
+        legacyRequest.setAmount(amount.doubleValue());
+        return write(legacyRequest);
+    }
+
+    @Benchmark
+    public byte[] serializeMinorUnits() throws IOException {
+        minorUnitsRequest.setAmountMinorUnits(AccountValidationRecordFactory.toMinorUnits(amount));
+        return write(minorUnitsRequest);
+    }
+
+    @Benchmark
+    public double deserializeLegacyAmount() throws IOException {
+        decoder = DecoderFactory.get().binaryDecoder(legacyRequestBytes, decoder);
+        return requestReader.read(null, decoder).getAmount();
+    }
+
+    @Benchmark
+    public long deserializeMinorUnits() throws IOException {
+        decoder = DecoderFactory.get().binaryDecoder(minorUnitsRequestBytes, decoder);
+        return requestReader.read(null, decoder).getAmountMinorUnits();
+    }
+
+    private byte[] write(AccountValidationRequest value) throws IOException {
+        out.reset();
+        encoder = EncoderFactory.get().binaryEncoder(out, encoder);
+        requestWriter.write(value, encoder);
+        encoder.flush();
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() throws IOException {
+        out.reset();
+        encoder = EncoderFactory.get().binaryEncoder(out, encoder);
+        responseWriter.write(response, encoder);
+        encoder.flush();
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public AccountValidationResponse deserializeResponse() throws IOException {
+        decoder = DecoderFactory.get().binaryDecoder(responseBytes, decoder);
+        return responseReader.read(null, decoder);
+    }
+}
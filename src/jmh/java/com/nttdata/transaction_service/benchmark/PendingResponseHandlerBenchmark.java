@@ -0,0 +1,81 @@
+package com.nttdata.transaction_service.benchmark;
+
+import com.ettdata.avro.AccountValidationResponse;
+import com.nttdata.transaction_service.infrastructure.handler.PendingResponseHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * register/complete de PendingResponseHandler bajo contención (un sink por solicitud, como en producción)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PendingResponseHandlerBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SharedHandler {
+        PendingResponseHandler handler;
+        AccountValidationResponse response;
+
+        @Setup
+        public void setUp() {
+            handler = new PendingResponseHandler(10, 100, 512);
+            response = AccountValidationResponse.newBuilder()
+                    .setTransactionId("tx")
+                    .setAccountNumber("1234567890")
+                    .setCodResponse(200)
+                    .setMessageResponse("OK")
+                    .build();
+        }
+
+        @TearDown
+        public void tearDown() {
+            handler.shutdown();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadIds {
+        private final String prefix = Thread.currentThread().getName() + "-";
+        private long sequence;
+
+        String next() {
+            return prefix + sequence++;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void registerAndComplete(SharedHandler shared, ThreadIds ids, Blackhole blackhole) {
+        roundTrip(shared, ids.next(), blackhole);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void registerAndCompleteContended(SharedHandler shared, ThreadIds ids, Blackhole blackhole) {
+        roundTrip(shared, ids.next(), blackhole);
+    }
+
+    private void roundTrip(SharedHandler shared, String transactionId, Blackhole blackhole) {
+        Mono.<AccountValidationResponse>create(sink -> shared.handler.register(transactionId, sink))
+                .subscribe(blackhole::consume);
+        blackhole.consume(shared.handler.complete(transactionId, shared.response));
+    }
+}
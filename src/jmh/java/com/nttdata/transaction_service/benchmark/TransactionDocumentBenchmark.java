@@ -0,0 +1,93 @@
+package com.nttdata.transaction_service.benchmark;
+
+import com.nttdata.transaction_service.domain.model.Transaction;
+import com.nttdata.transaction_service.infrastructure.dto.DepositRequest;
+import com.nttdata.transaction_service.infrastructure.entity.TransactionEntity;
+import com.nttdata.transaction_service.infrastructure.utils.TimeOrderedTransactionIdGenerator;
+import com.nttdata.transaction_service.infrastructure.utils.TransactionDocumentConverters;
+import com.nttdata.transaction_service.infrastructure.utils.TransactionMapper;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persistencia de una transacción: camino por entidad (TransactionMapper + mapeo reflexivo de
+ * TransactionEntity) frente a los conversores directos Document ↔ Transaction. El perfil jmh ya
+ * ejecuta con -prof gc, así que gc.alloc.rate.norm da los bytes asignados por operación.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionDocumentBenchmark {
+
+    private TransactionMapper mapper;
+    private MappingMongoConverter converter;
+    private Transaction transaction;
+    private Document entityDocument;
+    private Document directDocument;
+
+    @Setup
+    public void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(TransactionDocumentConverters.converters());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        mapper = new TransactionMapper(new TimeOrderedTransactionIdGenerator(1));
+        transaction = mapper.toDepositTransaction(
+                new DepositRequest("1234567890", new BigDecimal("150.25"), null));
+
+        entityDocument = writeViaEntity();
+        directDocument = writeDirect();
+    }
+
+    // ========== WRITE ==========
+
+    @Benchmark
+    public Document writeViaEntity() {
+        Document document = new Document();
+        converter.write(mapper.toEntity(transaction), document);
+        return document;
+    }
+
+    @Benchmark
+    public Document writeDirect() {
+        Document document = new Document();
+        converter.write(transaction, document);
+        return document;
+    }
+
+    // ========== READ ==========
+
+    @Benchmark
+    public Transaction readViaEntity() {
+        return mapper.toDomain(converter.read(TransactionEntity.class, entityDocument));
+    }
+
+    @Benchmark
+    public Transaction readDirect() {
+        return converter.read(Transaction.class, directDocument);
+    }
+}
@@ -0,0 +1,84 @@
+package com.nttdata.transaction_service.benchmark;
+
+import com.nttdata.transaction_service.domain.dto.TransactionResponse;
+import com.nttdata.transaction_service.domain.model.Transaction;
+import com.nttdata.transaction_service.infrastructure.dto.DepositRequest;
+import com.nttdata.transaction_service.infrastructure.dto.TransferRequest;
+import com.nttdata.transaction_service.infrastructure.entity.TransactionEntity;
+import com.nttdata.transaction_service.infrastructure.utils.TimeOrderedTransactionIdGenerator;
+import com.nttdata.transaction_service.infrastructure.utils.TransactionMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversiones de TransactionMapper en el camino por solicitud: request → domain → entity → response
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionMapperBenchmark {
+
+    private TransactionMapper mapper;
+    private DepositRequest deposit;
+    private TransferRequest transfer;
+    private Transaction transaction;
+    private TransactionEntity entity;
+
+    @Setup
+    public void setUp() {
+        mapper = new TransactionMapper(new TimeOrderedTransactionIdGenerator(1));
+        deposit = new DepositRequest("1234567890", new BigDecimal("150.25"), null);
+        transfer = new TransferRequest("1234567890", "0987654321", new BigDecimal("1200.50"), null);
+        transaction = mapper.toDepositTransaction(deposit);
+        entity = mapper.toEntity(transaction);
+    }
+
+    @Benchmark
+    public Transaction requestToDomain() {
+        return mapper.toDepositTransaction(deposit);
+    }
+
+    @Benchmark
+    public Transaction transferRequestToDomain() {
+        return mapper.toTransferOutTransaction(transfer);
+    }
+
+    @Benchmark
+    public TransactionEntity domainToEntity() {
+        return mapper.toEntity(transaction);
+    }
+
+    @Benchmark
+    public Transaction entityToDomain() {
+        return mapper.toDomain(entity);
+    }
+
+    @Benchmark
+    public TransactionResponse domainToResponse() {
+        return mapper.toSuccessResponse(transaction);
+    }
+
+    /**
+     * Recorrido completo de un depósito: request → domain → entity → domain → response
+     */
+    @Benchmark
+    public TransactionResponse fullDepositPath() {
+        Transaction created = mapper.toDepositTransaction(deposit);
+        Transaction saved = mapper.toDomain(mapper.toEntity(created));
+        return mapper.toSuccessResponse(saved);
+    }
+}
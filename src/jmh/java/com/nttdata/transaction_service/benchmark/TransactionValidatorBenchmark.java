@@ -0,0 +1,59 @@
+package com.nttdata.transaction_service.benchmark;
+
+import com.nttdata.transaction_service.infrastructure.dto.DepositRequest;
+import com.nttdata.transaction_service.infrastructure.dto.TransferRequest;
+import com.nttdata.transaction_service.infrastructure.dto.WithdrawalRequest;
+import com.nttdata.transaction_service.infrastructure.utils.TransactionValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de TransactionValidator.validate* por solicitud (casos válidos e inválidos)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionValidatorBenchmark {
+
+    private final TransactionValidator validator = new TransactionValidator();
+
+    private final DepositRequest deposit = new DepositRequest("1234567890", new BigDecimal("150.25"), "Depósito");
+    private final WithdrawalRequest withdrawal = new WithdrawalRequest("1234567890", new BigDecimal("80.00"), null);
+    private final TransferRequest transfer =
+            new TransferRequest("1234567890", "0987654321", new BigDecimal("1200.50"), "Pago");
+    private final WithdrawalRequest invalidWithdrawal =
+            new WithdrawalRequest("123", new BigDecimal("10.123"), null);
+
+    @Benchmark
+    public String validateDeposit() {
+        return validator.validateDeposit(deposit);
+    }
+
+    @Benchmark
+    public String validateWithdrawal() {
+        return validator.validateWithdrawal(withdrawal);
+    }
+
+    @Benchmark
+    public String validateTransfer() {
+        return validator.validateTransfer(transfer);
+    }
+
+    @Benchmark
+    public String validateInvalidWithdrawal() {
+        return validator.validateWithdrawal(invalidWithdrawal);
+    }
+}
@@ -1,15 +1,63 @@
 package com.nttdata.transaction_service.application.port.in;
 
+import com.nttdata.transaction_service.domain.dto.BatchTransactionResponse;
 import com.nttdata.transaction_service.domain.dto.TransactionListResponse;
+import com.nttdata.transaction_service.domain.dto.TransactionPageResponse;
 import com.nttdata.transaction_service.domain.dto.TransactionResponse;
+import com.nttdata.transaction_service.domain.model.AccountSummary;
+import com.nttdata.transaction_service.domain.model.Transaction;
+import com.nttdata.transaction_service.domain.model.enums.TransactionStatus;
+import com.nttdata.transaction_service.infrastructure.dto.BatchTransactionRequest;
 import com.nttdata.transaction_service.infrastructure.dto.DepositRequest;
 import com.nttdata.transaction_service.infrastructure.dto.TransferRequest;
 import com.nttdata.transaction_service.infrastructure.dto.WithdrawalRequest;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
 public interface TransactionInputPort {
   Mono<TransactionListResponse> getAllTransactionsByAccountNumber(String accountNumber);
+  Flux<Transaction> streamTransactionsByAccountNumber(String accountNumber);
+
+  /**
+   * Transacciones nuevas y cambios de estado de la cuenta, en vivo desde la suscripción
+   */
+  Flux<Transaction> streamAccountEvents(String accountNumber);
+  Mono<TransactionPageResponse> getTransactionPage(String accountNumber,
+                                                   TransactionStatus status,
+                                                   LocalDateTime afterTransactionDate,
+                                                   String afterTransactionId,
+                                                   int size);
+  Mono<AccountSummary> getAccountSummary(String accountNumber);
   Mono<TransactionResponse> deposit(DepositRequest transactionResponse);
   Mono<TransactionResponse> transfer(TransferRequest transferRequest);
   Mono<TransactionResponse> withdraw(WithdrawalRequest withdrawalRequest );
+  Mono<BatchTransactionResponse> processBatch(BatchTransactionRequest batchRequest);
+
+  /**
+   * Modo asíncrono: responden 202 en cuanto la transacción queda persistida
+   */
+  Mono<TransactionResponse> depositAsync(DepositRequest depositRequest);
+  Mono<TransactionResponse> transferAsync(TransferRequest transferRequest);
+  Mono<TransactionResponse> withdrawAsync(WithdrawalRequest withdrawalRequest);
+
+  /**
+   * Variantes con aviso de persistencia: onPersisted recibe la transacción en cuanto queda guardada
+   * (en transferencias, el débito) y la operación espera a que su Mono termine antes de continuar
+   */
+  Mono<TransactionResponse> deposit(DepositRequest depositRequest, Function<Transaction, Mono<Void>> onPersisted);
+  Mono<TransactionResponse> transfer(TransferRequest transferRequest, Function<Transaction, Mono<Void>> onPersisted);
+  Mono<TransactionResponse> withdraw(WithdrawalRequest withdrawalRequest, Function<Transaction, Mono<Void>> onPersisted);
+  Mono<TransactionResponse> depositAsync(DepositRequest depositRequest, Function<Transaction, Mono<Void>> onPersisted);
+  Mono<TransactionResponse> transferAsync(TransferRequest transferRequest, Function<Transaction, Mono<Void>> onPersisted);
+  Mono<TransactionResponse> withdrawAsync(WithdrawalRequest withdrawalRequest, Function<Transaction, Mono<Void>> onPersisted);
+
+  Mono<TransactionResponse> getTransactionStatus(String transactionId);
+
+  /**
+   * Estado actual y, si sigue pendiente en esta réplica, el resultado final al llegar
+   */
+  Flux<TransactionResponse> streamTransactionStatus(String transactionId);
 }
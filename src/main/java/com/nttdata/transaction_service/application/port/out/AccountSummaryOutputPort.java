@@ -0,0 +1,28 @@
+package com.nttdata.transaction_service.application.port.out;
+
+import com.nttdata.transaction_service.domain.model.AccountSummary;
+import com.nttdata.transaction_service.domain.model.Transaction;
+import reactor.core.publisher.Mono;
+
+/**
+ * Puerto de salida para el resumen materializado por cuenta
+ */
+public interface AccountSummaryOutputPort {
+
+  /**
+   * Obtiene el resumen de una cuenta (vacío si no tiene movimientos)
+   */
+  Mono<AccountSummary> findByAccountNumber(String accountNumber);
+
+  /**
+   * Aplica atómicamente ($inc) una transacción persistida al resumen de su cuenta
+   */
+  Mono<Void> applyTransaction(Transaction transaction);
+
+  /**
+   * Recalcula todos los resúmenes desde la colección de transacciones
+   * @param concurrency cuentas recalculadas en paralelo
+   * @return número de cuentas recalculadas
+   */
+  Mono<Long> rebuildAll(int concurrency);
+}
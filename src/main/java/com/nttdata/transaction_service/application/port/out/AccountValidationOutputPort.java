@@ -34,4 +34,10 @@ public interface AccountValidationOutputPort {
           String sourceAccountNumber,
           String targetAccountNumber,
           BigDecimal amount);
+
+  /**
+   * Registra la espera de respuesta y luego suscribe la publicación (escritura en el outbox);
+   * si la publicación falla, la espera termina con ese error
+   */
+  Mono<AccountValidationResponse> awaitResponse(String transactionId, Mono<Void> publication);
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.nttdata.transaction_service.application.port.out;
+
+import com.nttdata.transaction_service.domain.dto.TransactionResponse;
+import com.nttdata.transaction_service.domain.model.IdempotencyRecord;
+import reactor.core.publisher.Mono;
+
+public interface IdempotencyOutputPort {
+
+  /**
+   * Reserva la clave (PENDING) antes de ejecutar la operación; false si ya existía y no es una
+   * reserva huérfana (sin transacción y con el lease vencido) que se pueda retomar
+   */
+  Mono<Boolean> reserve(String key, String requestHash);
+
+  /**
+   * Reserva existente para la clave, o vacío si no existe
+   */
+  Mono<IdempotencyRecord> find(String key);
+
+  /**
+   * Asocia la transacción persistida a la reserva, si aún no tiene una
+   */
+  Mono<Void> bindTransaction(String key, String transactionId);
+
+  /**
+   * Guarda la respuesta definitiva
+   */
+  Mono<Void> complete(String key, TransactionResponse response);
+
+  /**
+   * Libera una reserva sin transacción persistida, para que el reintento vuelva a ejecutarse
+   */
+  Mono<Void> release(String key);
+}
@@ -1,11 +1,65 @@
 package com.nttdata.transaction_service.application.port.out;
 
+import com.nttdata.transaction_service.domain.model.OutboxMessage;
 import com.nttdata.transaction_service.domain.model.Transaction;
+import com.nttdata.transaction_service.domain.model.enums.TransactionStatus;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 public interface TransactionRepositoryOutputPort {
 
   Flux<Transaction> findAllTransactionByAccountNumber(String accountNumber);
+  Mono<Transaction> findTransactionById(String transactionId);
   Mono<Transaction> saveTransaction(Transaction transaction);
+
+  /**
+   * Inserta el lote en una sola operación (insertMany), conservando el orden de entrada
+   */
+  Flux<Transaction> saveAll(List<Transaction> transactions);
+
+  /**
+   * Inserta débito y crédito de una transferencia; con transacciones Mongo se confirman ambos o
+   * ninguno, sin ellas un tramo escrito a medias queda REJECTED
+   */
+  Mono<Void> saveTransfer(Transaction debit, Transaction credit);
+
+  /**
+   * Inserta las transacciones y su solicitud de validación en una misma transacción Mongo:
+   * o se confirman ambas o ninguna
+   */
+  Mono<Void> saveWithOutbox(List<Transaction> transactions, OutboxMessage message);
+
+  /**
+   * Descarta la solicitud de validación del outbox si aún no se reclamó para publicarla; false si
+   * ya se publicó o su envío está en curso
+   */
+  Mono<Boolean> expireOutbox(String transactionId);
+
+  /**
+   * Cambia el estado de varias transacciones PENDING con un único updateMulti
+   */
+  Mono<Void> updateStatus(List<Transaction> transactions, TransactionStatus status);
+
+  /**
+   * Transacciones que siguen PENDING desde antes de la fecha indicada, sin acumular en memoria
+   */
+  Flux<Transaction> findPendingBefore(LocalDateTime before);
+
+  /**
+   * Historial ordenado por (transactionDate, transactionId) descendente, sin acumular en memoria
+   */
+  Flux<Transaction> streamTransactionsByAccountNumber(String accountNumber);
+
+  /**
+   * Página de historial posterior al cursor; sin cursor devuelve la primera página.
+   * Con status solo incluye transacciones en ese estado
+   */
+  Flux<Transaction> findTransactionPage(String accountNumber,
+                                        TransactionStatus status,
+                                        LocalDateTime afterTransactionDate,
+                                        String afterTransactionId,
+                                        int size);
 }
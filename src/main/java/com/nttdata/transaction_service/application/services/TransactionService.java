@@ -1,33 +1,83 @@
 package com.nttdata.transaction_service.application.services;
 
 import com.nttdata.transaction_service.application.port.in.TransactionInputPort;
+import com.nttdata.transaction_service.application.port.out.AccountSummaryOutputPort;
 import com.nttdata.transaction_service.application.port.out.AccountValidationOutputPort;
 import com.nttdata.transaction_service.application.port.out.TransactionRepositoryOutputPort;
+import com.nttdata.transaction_service.domain.dto.BatchTransactionResponse;
 import com.nttdata.transaction_service.domain.dto.TransactionListResponse;
+import com.nttdata.transaction_service.domain.dto.TransactionPageResponse;
 import com.nttdata.transaction_service.domain.dto.TransactionResponse;
 import com.nttdata.transaction_service.domain.error.AccountValidationException;
+import com.nttdata.transaction_service.domain.error.AccountValidationTimeoutException;
+import com.nttdata.transaction_service.domain.error.AdmissionRejectedException;
+import com.nttdata.transaction_service.domain.error.CircuitOpenException;
 import com.nttdata.transaction_service.domain.error.TransactionPersistenceException;
+import com.nttdata.transaction_service.domain.model.AccountSummary;
 import com.nttdata.transaction_service.domain.model.Transaction;
+import com.nttdata.transaction_service.domain.model.enums.TransactionStatus;
+import com.nttdata.transaction_service.domain.model.enums.TransactionType;
+import com.nttdata.transaction_service.infrastructure.dto.BatchTransactionItem;
+import com.nttdata.transaction_service.infrastructure.dto.BatchTransactionRequest;
 import com.nttdata.transaction_service.infrastructure.dto.DepositRequest;
 import com.nttdata.transaction_service.infrastructure.dto.TransferRequest;
 import com.nttdata.transaction_service.infrastructure.dto.WithdrawalRequest;
+import com.nttdata.transaction_service.infrastructure.config.OutboxProperties;
+import com.nttdata.transaction_service.infrastructure.handler.AccountEventBroadcaster;
+import com.nttdata.transaction_service.infrastructure.handler.AccountSequencer;
+import com.nttdata.transaction_service.infrastructure.handler.AccountValidationCircuitBreaker;
+import com.nttdata.transaction_service.infrastructure.handler.AdmissionLimiter;
+import com.nttdata.transaction_service.infrastructure.handler.AsyncResultRegistry;
+import com.nttdata.transaction_service.infrastructure.handler.TransactionStatusUpdater;
+import com.nttdata.transaction_service.infrastructure.metrics.TransactionMetrics;
 import com.nttdata.transaction_service.infrastructure.utils.TransactionMapper;
 import com.nttdata.transaction_service.infrastructure.utils.TransactionValidator;
 import jakarta.validation.ValidationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class TransactionService implements TransactionInputPort {
 
+    // ========== CONSTANTS ==========
+
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final int BATCH_VALIDATION_CONCURRENCY = 32;
+    private static final int ACCEPTED = 202;
+
+    // Operaciones síncronas: nadie espera el aviso de persistencia
+    private static final Function<Transaction, Mono<Void>> NOT_TRACKED = transaction -> Mono.empty();
+
     private final TransactionRepositoryOutputPort transactionRepository;
     private final TransactionValidator validator;
     private final TransactionMapper mapper;
     private final AccountValidationOutputPort accountValidation;
+    private final AccountSummaryOutputPort accountSummary;
+    private final TransactionMetrics metrics;
+    private final AdmissionLimiter admissionLimiter;
+    private final AccountValidationCircuitBreaker circuitBreaker;
+    private final OutboxProperties outbox;
+    private final TransactionStatusUpdater statusUpdater;
+    private final AsyncResultRegistry asyncResults;
+    private final AccountEventBroadcaster accountEvents;
+    private final AccountSequencer sequencer;
 
     // ========== PUBLIC METHODS ==========
 
@@ -44,44 +94,289 @@ public class TransactionService implements TransactionInputPort {
                         log.error("❌ Error consultando transacciones: {}", error.getMessage()));
     }
 
+    @Override
+    public Flux<Transaction> streamTransactionsByAccountNumber(String accountNumber) {
+        log.info("📡 Streaming de transacciones: cuenta={}", accountNumber);
+
+        return transactionRepository.streamTransactionsByAccountNumber(accountNumber)
+                .doOnError(error ->
+                        log.error("❌ Error en streaming de transacciones: {}", error.getMessage()));
+    }
+
+    @Override
+    public Flux<Transaction> streamAccountEvents(String accountNumber) {
+        log.info("🔔 Suscripción a eventos: cuenta={}", accountNumber);
+
+        return accountEvents.subscribe(accountNumber)
+                .doFinally(signal -> log.debug("🔕 Suscripción a eventos finalizada: cuenta={}, señal={}",
+                        accountNumber, signal));
+    }
+
+    @Override
+    public Mono<TransactionPageResponse> getTransactionPage(String accountNumber,
+                                                            TransactionStatus status,
+                                                            LocalDateTime afterTransactionDate,
+                                                            String afterTransactionId,
+                                                            int size) {
+        log.info("📄 Consultando página de transacciones: cuenta={}, estado={}, después de=({}, {}), tamaño={}",
+                accountNumber, status, afterTransactionDate, afterTransactionId, size);
+
+        if ((afterTransactionDate == null) != (afterTransactionId == null)) {
+            return Mono.just(mapper.toTransactionPageError(
+                    "El cursor requiere afterTransactionDate y afterTransactionId"));
+        }
+
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        // Se lee un registro extra para saber si existe una página siguiente
+        return transactionRepository.findTransactionPage(
+                        accountNumber, status, afterTransactionDate, afterTransactionId, pageSize + 1)
+                .collectList()
+                .map(rows -> mapper.toTransactionPageResponse(rows, pageSize))
+                .doOnError(error ->
+                        log.error("❌ Error consultando página de transacciones: {}", error.getMessage()));
+    }
+
+    @Override
+    public Mono<AccountSummary> getAccountSummary(String accountNumber) {
+        log.info("📊 Consultando resumen: cuenta={}", accountNumber);
+
+        return accountSummary.findByAccountNumber(accountNumber)
+                .defaultIfEmpty(AccountSummary.builder()
+                        .accountNumber(accountNumber)
+                        .balance(BigDecimal.ZERO)
+                        .totalsByType(Map.of())
+                        .build())
+                .doOnError(error ->
+                        log.error("❌ Error consultando resumen: {}", error.getMessage()));
+    }
+
     @Override
     public Mono<TransactionResponse> deposit(DepositRequest request) {
+        return deposit(request, NOT_TRACKED);
+    }
+
+    @Override
+    public Mono<TransactionResponse> deposit(DepositRequest request,
+                                             Function<Transaction, Mono<Void>> onPersisted) {
         log.info("💵 Iniciando depósito: cuenta={}, monto={}",
                 request.getNumberAccount(), request.getAmount());
 
-        return validateDepositRequest(request)
-                .flatMap(this::createAndSaveDepositTransaction)
-                .flatMap(this::validateDepositWithAccount)
-                .onErrorResume(this::handleDepositError);
+        return depositOperation(request, onPersisted);
     }
 
     @Override
     public Mono<TransactionResponse> transfer(TransferRequest request) {
+        return transfer(request, NOT_TRACKED);
+    }
+
+    @Override
+    public Mono<TransactionResponse> transfer(TransferRequest request,
+                                              Function<Transaction, Mono<Void>> onPersisted) {
         log.info("💸 Iniciando transferencia: desde={}, hacia={}, monto={}",
                 request.getSourceNumberAccount(),
                 request.getTargetNumberAccount(),
                 request.getAmount());
 
-        return validateTransferRequest(request)
-                .flatMap(this::executeTransfer)
-                .onErrorResume(this::handleTransferError);
+        return transferOperation(request, onPersisted);
     }
 
     @Override
     public Mono<TransactionResponse> withdraw(WithdrawalRequest request) {
+        return withdraw(request, NOT_TRACKED);
+    }
+
+    @Override
+    public Mono<TransactionResponse> withdraw(WithdrawalRequest request,
+                                              Function<Transaction, Mono<Void>> onPersisted) {
         log.info("💰 Iniciando retiro: cuenta={}, monto={}",
                 request.getNumberAccount(), request.getAmount());
 
-        return validateWithdrawalRequest(request)
-                .flatMap(this::createAndSaveWithdrawTransaction)
-                .flatMap(this::validateWithdrawWithAccount)
-                .onErrorResume(this::handleWithdrawalError);
+        return withdrawOperation(request, onPersisted);
+    }
+
+    @Override
+    public Mono<BatchTransactionResponse> processBatch(BatchTransactionRequest batchRequest) {
+        List<BatchTransactionItem> items = batchRequest != null && batchRequest.getItems() != null
+                ? batchRequest.getItems()
+                : List.of();
+        log.info("📦 Iniciando lote: {} transacciones", items.size());
+
+        if (items.isEmpty()) {
+            return Mono.just(mapper.toBatchErrorResponse(400, "El lote no contiene transacciones"));
+        }
+        if (items.size() > MAX_BATCH_SIZE) {
+            return Mono.just(mapper.toBatchErrorResponse(400,
+                    "El lote no puede exceder " + MAX_BATCH_SIZE + " transacciones"));
+        }
+
+        if (!circuitBreaker.allowsCalls()) {
+            return Mono.just(mapper.toBatchErrorResponse(503,
+                    "Servicio de cuentas no disponible (circuito abierto)"));
+        }
+
+        TransactionResponse[] results = new TransactionResponse[items.size()];
+        List<BatchEntry> accepted = new ArrayList<>();
+
+        for (int index = 0; index < items.size(); index++) {
+            BatchTransactionItem item = items.get(index);
+            String error = validateBatchItem(item);
+            if (error != null) {
+                log.warn("⚠️ Validación fallida en lote: item={}, error={}", index, error);
+                results[index] = mapper.toErrorResponse(400, error);
+            } else {
+                Transaction credit = item.getTransactionType() == TransactionType.TRANSFER
+                        ? mapper.toTransferInTransaction(mapper.toTransferRequest(item))
+                        : null;
+                accepted.add(new BatchEntry(index, item, toBatchTransaction(item), credit));
+            }
+        }
+
+        return saveBatch(accepted)
+                .thenMany(Flux.fromIterable(accepted))
+                .flatMapSequential(this::validateBatchEntry, BATCH_VALIDATION_CONCURRENCY)
+                .collectList()
+                .onErrorResume(error -> {
+                    log.error("💥 Error en lote: {}", error.getMessage(), error);
+                    return handleError(error, "lote")
+                            .map(failure -> accepted.stream()
+                                    .map(entry -> new BatchResult(entry, failure))
+                                    .toList());
+                })
+                .map(batchResults -> {
+                    batchResults.forEach(result -> results[result.entry().index()] = result.response());
+                    return mapper.toBatchResponse(Arrays.asList(results));
+                })
+                .doOnSuccess(response -> log.info("✅ Lote procesado: total={}, exitosas={}, fallidas={}",
+                        response.getTotal(), response.getSucceeded(), response.getFailed()));
+    }
+
+    // ========== ASYNC MODE ==========
+
+    @Override
+    public Mono<TransactionResponse> depositAsync(DepositRequest request) {
+        return depositAsync(request, NOT_TRACKED);
+    }
+
+    @Override
+    public Mono<TransactionResponse> transferAsync(TransferRequest request) {
+        return transferAsync(request, NOT_TRACKED);
+    }
+
+    @Override
+    public Mono<TransactionResponse> withdrawAsync(WithdrawalRequest request) {
+        return withdrawAsync(request, NOT_TRACKED);
+    }
+
+    @Override
+    public Mono<TransactionResponse> depositAsync(DepositRequest request,
+                                                  Function<Transaction, Mono<Void>> onPersisted) {
+        log.info("📥 Depósito asíncrono: cuenta={}, monto={}",
+                request.getNumberAccount(), request.getAmount());
+        return submitAsync(onAccepted -> depositOperation(request, afterPersisted(onPersisted, onAccepted)));
+    }
+
+    @Override
+    public Mono<TransactionResponse> transferAsync(TransferRequest request,
+                                                   Function<Transaction, Mono<Void>> onPersisted) {
+        log.info("📥 Transferencia asíncrona: desde={}, hacia={}, monto={}",
+                request.getSourceNumberAccount(), request.getTargetNumberAccount(), request.getAmount());
+        return submitAsync(onAccepted -> transferOperation(request, afterPersisted(onPersisted, onAccepted)));
+    }
+
+    @Override
+    public Mono<TransactionResponse> withdrawAsync(WithdrawalRequest request,
+                                                   Function<Transaction, Mono<Void>> onPersisted) {
+        log.info("📥 Retiro asíncrono: cuenta={}, monto={}",
+                request.getNumberAccount(), request.getAmount());
+        return submitAsync(onAccepted -> withdrawOperation(request, afterPersisted(onPersisted, onAccepted)));
+    }
+
+    @Override
+    public Mono<TransactionResponse> getTransactionStatus(String transactionId) {
+        CompletableFuture<TransactionResponse> result = asyncResults.find(transactionId);
+        if (result != null && result.isDone()) {
+            return Mono.just(result.join());
+        }
+
+        return transactionRepository.findTransactionById(transactionId)
+                .map(mapper::toStatusResponse)
+                .defaultIfEmpty(mapper.toErrorResponse(404, "Transacción no encontrada"))
+                .doOnError(error ->
+                        log.error("❌ Error consultando estado de transacción: {}", error.getMessage()));
+    }
+
+    @Override
+    public Flux<TransactionResponse> streamTransactionStatus(String transactionId) {
+        return getTransactionStatus(transactionId)
+                .flatMapMany(current -> {
+                    CompletableFuture<TransactionResponse> result = asyncResults.find(transactionId);
+                    if (result == null || current.getCodResponse() != ACCEPTED) {
+                        return Flux.just(current);
+                    }
+                    // El future es compartido: cerrar el stream no debe cancelarlo
+                    return Flux.concat(Mono.just(current), Mono.fromFuture(result, true));
+                });
+    }
+
+    /**
+     * Responde 202 en cuanto la operación persiste la transacción y la deja terminar en segundo
+     * plano; el resultado final queda en AsyncResultRegistry. Si la operación termina antes de
+     * persistir (validación, admisión, circuito, error de escritura) se devuelve ese resultado.
+     */
+    private Mono<TransactionResponse> submitAsync(
+            Function<Function<Transaction, Mono<Void>>, Mono<TransactionResponse>> operation) {
+
+        return Mono.defer(() -> {
+            Sinks.One<Transaction> persisted = Sinks.one();
+            AtomicReference<String> acceptedId = new AtomicReference<>();
+
+            Mono<TransactionResponse> completion = operation.apply(transaction -> Mono.fromRunnable(() -> {
+                        asyncResults.register(transaction.getTransactionId());
+                        acceptedId.set(transaction.getTransactionId());
+                        persisted.tryEmitValue(transaction);
+                    }))
+                    .doOnNext(response -> {
+                        if (acceptedId.get() != null) {
+                            asyncResults.complete(acceptedId.get(), response);
+                        }
+                    })
+                    .doFinally(signal -> persisted.tryEmitEmpty())
+                    .cache();
+
+            // La operación no depende de la conexión HTTP: se suscribe aparte
+            completion.subscribe(
+                    null,
+                    error -> log.error("💥 Error en operación asíncrona: {}", error.getMessage(), error));
+
+            return persisted.asMono()
+                    .map(mapper::toAcceptedResponse)
+                    .switchIfEmpty(completion);
+        });
+    }
+
+    /**
+     * El aviso del llamador termina antes del 202: un reintento que llega tras la aceptación ya
+     * encuentra la Idempotency-Key ligada a la transacción
+     */
+    private static Function<Transaction, Mono<Void>> afterPersisted(Function<Transaction, Mono<Void>> onPersisted,
+                                                                    Function<Transaction, Mono<Void>> onAccepted) {
+        return transaction -> onPersisted.apply(transaction).then(onAccepted.apply(transaction));
     }
 
     // ========== DEPOSIT FLOW ==========
 
+    private Mono<TransactionResponse> depositOperation(DepositRequest request,
+                                                       Function<Transaction, Mono<Void>> onPersisted) {
+        return metrics.timeOperation(TransactionMetrics.OPERATION_DEPOSIT,
+                validateDepositRequest(request)
+                        .flatMap(valid -> guarded(executeDeposit(valid, onPersisted)))
+                        .onErrorResume(this::handleDepositError));
+    }
+
     private Mono<DepositRequest> validateDepositRequest(DepositRequest request) {
-        return validator.validateDepositReactive(request)
+        return metrics.timeStage(TransactionMetrics.STAGE_VALIDATION, TransactionMetrics.OPERATION_DEPOSIT,
+                validator.validateDepositReactive(request))
                 .flatMap(error -> {
                     log.warn("⚠️ Validación de depósito fallida: {}", error);
                     return Mono.error(new ValidationException(error));
@@ -89,10 +384,16 @@ public class TransactionService implements TransactionInputPort {
                 .then(Mono.just(request));
     }
 
-    private Mono<Transaction> createAndSaveDepositTransaction(DepositRequest request) {
+    private Mono<TransactionResponse> executeDeposit(DepositRequest request,
+                                                     Function<Transaction, Mono<Void>> onPersisted) {
         return Mono.fromCallable(() -> mapper.toDepositTransaction(request))
                 .doOnNext(tx -> log.debug("🔄 Depósito mapeado: id={}", tx.getTransactionId()))
-                .flatMap(this::saveTransaction);
+                .flatMap(transaction -> settle(List.of(transaction), outbox.isEnabled()
+                        ? validateThroughOutbox(List.of(transaction), null,
+                                TransactionMetrics.OPERATION_DEPOSIT, onPersisted)
+                        : saveTransaction(transaction)
+                                .flatMap(saved -> onPersisted.apply(saved).thenReturn(saved))
+                                .flatMap(this::validateDepositWithAccount)));
     }
 
     private Mono<TransactionResponse> validateDepositWithAccount(Transaction transaction) {
@@ -108,7 +409,7 @@ public class TransactionService implements TransactionInputPort {
                         log.info("📨 Respuesta de account-service: status={}",
                                 response.getCodResponse()))
                 .map(kafkaResponse -> mapper.toResponseFromKafka(kafkaResponse, transaction))
-                .onErrorMap(e -> {
+                .onErrorMap(e -> !(e instanceof AccountValidationTimeoutException), e -> {
                     log.error("❌ Error validando depósito", e);
                     return new AccountValidationException("Error validando depósito: " + e.getMessage());
                 });
@@ -121,8 +422,18 @@ public class TransactionService implements TransactionInputPort {
 
     // ========== TRANSFER FLOW ==========
 
+    private Mono<TransactionResponse> transferOperation(TransferRequest request,
+                                                        Function<Transaction, Mono<Void>> onPersisted) {
+        return metrics.timeOperation(TransactionMetrics.OPERATION_TRANSFER,
+                validateTransferRequest(request)
+                        .flatMap(valid -> sequencer.sequence(valid.getSourceNumberAccount(),
+                                guarded(executeTransfer(valid, onPersisted))))
+                        .onErrorResume(this::handleTransferError));
+    }
+
     private Mono<TransferRequest> validateTransferRequest(TransferRequest request) {
-        return validator.validateTransferReactive(request)
+        return metrics.timeStage(TransactionMetrics.STAGE_VALIDATION, TransactionMetrics.OPERATION_TRANSFER,
+                validator.validateTransferReactive(request))
                 .flatMap(error -> {
                     log.warn("⚠️ Validación de transferencia fallida: {}", error);
                     return Mono.error(new ValidationException(error));
@@ -130,24 +441,40 @@ public class TransactionService implements TransactionInputPort {
                 .then(Mono.just(request));
     }
 
-    private Mono<TransactionResponse> executeTransfer(TransferRequest request) {
+    private Mono<TransactionResponse> executeTransfer(TransferRequest request,
+                                                      Function<Transaction, Mono<Void>> onPersisted) {
         Transaction outTransaction = mapper.toTransferOutTransaction(request);
-
-        return saveTransaction(outTransaction)
-                .flatMap(savedOut -> validateTransferWithAccount(savedOut, request))
-                .flatMap(response -> {
-                    // Si la validación fue exitosa, crear la transacción de entrada
+        Transaction inTransaction = mapper.toTransferInTransaction(request);
+
+        // Ambos tramos se insertan PENDING en un solo round trip y cambian de estado juntos
+        Mono<TransactionResponse> validation = outbox.isEnabled()
+                ? validateThroughOutbox(List.of(outTransaction, inTransaction),
+                        request.getTargetNumberAccount(), TransactionMetrics.OPERATION_TRANSFER, onPersisted)
+                : saveTransfer(outTransaction, inTransaction)
+                        .then(Mono.defer(() -> onPersisted.apply(outTransaction)))
+                        .then(validateTransferWithAccount(outTransaction, request));
+
+        return settle(List.of(outTransaction, inTransaction), validation)
+                .doOnNext(response -> {
                     if (response.getCodResponse() == 200) {
-                        Transaction inTransaction = mapper.toTransferInTransaction(request);
-                        return saveTransaction(inTransaction)
-                                .map(savedIn -> {
-                                    log.info("✅ Transferencia completada: {} → {}",
-                                            request.getSourceNumberAccount(),
-                                            request.getTargetNumberAccount());
-                                    return response;
-                                });
+                        log.info("✅ Transferencia completada: {} → {}",
+                                request.getSourceNumberAccount(),
+                                request.getTargetNumberAccount());
                     }
-                    return Mono.just(response);
+                });
+    }
+
+    private Mono<Void> saveTransfer(Transaction outTransaction, Transaction inTransaction) {
+        return metrics.timeStage(TransactionMetrics.STAGE_PERSISTENCE, TransactionMetrics.OPERATION_TRANSFER,
+                        transactionRepository.saveTransfer(outTransaction, inTransaction))
+                .doOnSuccess(unused ->
+                        log.info("✅ Transferencia guardada: débito={}, crédito={}",
+                                outTransaction.getTransactionId(),
+                                inTransaction.getTransactionId()))
+                .onErrorMap(e -> {
+                    log.error("❌ Error guardando transferencia: {}", e.getMessage());
+                    return new TransactionPersistenceException(
+                            "Error guardando transferencia: " + e.getMessage());
                 });
     }
 
@@ -168,7 +495,7 @@ public class TransactionService implements TransactionInputPort {
                         log.info("📨 Respuesta de account-service: status={}",
                                 response.getCodResponse()))
                 .map(kafkaResponse -> mapper.toResponseFromKafka(kafkaResponse, transaction))
-                .onErrorMap(e -> {
+                .onErrorMap(e -> !(e instanceof AccountValidationTimeoutException), e -> {
                     log.error("❌ Error validando transferencia", e);
                     return new AccountValidationException("Error validando transferencia: " + e.getMessage());
                 });
@@ -181,8 +508,18 @@ public class TransactionService implements TransactionInputPort {
 
     // ========== WITHDRAWAL FLOW ==========
 
+    private Mono<TransactionResponse> withdrawOperation(WithdrawalRequest request,
+                                                        Function<Transaction, Mono<Void>> onPersisted) {
+        return metrics.timeOperation(TransactionMetrics.OPERATION_WITHDRAWAL,
+                validateWithdrawalRequest(request)
+                        .flatMap(valid -> sequencer.sequence(valid.getNumberAccount(),
+                                guarded(executeWithdraw(valid, onPersisted))))
+                        .onErrorResume(this::handleWithdrawalError));
+    }
+
     private Mono<WithdrawalRequest> validateWithdrawalRequest(WithdrawalRequest request) {
-        return validator.validateWithdrawalReactive(request)
+        return metrics.timeStage(TransactionMetrics.STAGE_VALIDATION, TransactionMetrics.OPERATION_WITHDRAWAL,
+                validator.validateWithdrawalReactive(request))
                 .flatMap(error -> {
                     log.warn("⚠️ Validación de retiro fallida: {}", error);
                     return Mono.error(new ValidationException(error));
@@ -190,10 +527,16 @@ public class TransactionService implements TransactionInputPort {
                 .then(Mono.just(request));
     }
 
-    private Mono<Transaction> createAndSaveWithdrawTransaction(WithdrawalRequest request) {
+    private Mono<TransactionResponse> executeWithdraw(WithdrawalRequest request,
+                                                      Function<Transaction, Mono<Void>> onPersisted) {
         return Mono.fromCallable(() -> mapper.toWithdrawalTransaction(request))
                 .doOnNext(tx -> log.debug("🔄 Retiro mapeado: id={}", tx.getTransactionId()))
-                .flatMap(this::saveTransaction);
+                .flatMap(transaction -> settle(List.of(transaction), outbox.isEnabled()
+                        ? validateThroughOutbox(List.of(transaction), null,
+                                TransactionMetrics.OPERATION_WITHDRAWAL, onPersisted)
+                        : saveTransaction(transaction)
+                                .flatMap(saved -> onPersisted.apply(saved).thenReturn(saved))
+                                .flatMap(this::validateWithdrawWithAccount)));
     }
 
     private Mono<TransactionResponse> validateWithdrawWithAccount(Transaction transaction) {
@@ -209,7 +552,7 @@ public class TransactionService implements TransactionInputPort {
                         log.info("📨 Respuesta de account-service: status={}",
                                 response.getCodResponse()))
                 .map(kafkaResponse -> mapper.toResponseFromKafka(kafkaResponse, transaction))
-                .onErrorMap(e -> {
+                .onErrorMap(e -> !(e instanceof AccountValidationTimeoutException), e -> {
                     log.error("❌ Error validando retiro", e);
                     return new AccountValidationException("Error validando retiro: " + e.getMessage());
                 });
@@ -220,10 +563,117 @@ public class TransactionService implements TransactionInputPort {
         return handleError(error, "retiro");
     }
 
+    // ========== BATCH FLOW ==========
+
+    private String validateBatchItem(BatchTransactionItem item) {
+        if (item == null || item.getTransactionType() == null) {
+            return "El tipo de transacción es obligatorio";
+        }
+
+        return switch (item.getTransactionType()) {
+            case DEPOSIT -> validator.validateDeposit(mapper.toDepositRequest(item));
+            case WITHDRAWAL -> validator.validateWithdrawal(mapper.toWithdrawalRequest(item));
+            case TRANSFER -> validator.validateTransfer(mapper.toTransferRequest(item));
+        };
+    }
+
+    private Transaction toBatchTransaction(BatchTransactionItem item) {
+        return switch (item.getTransactionType()) {
+            case DEPOSIT -> mapper.toDepositTransaction(mapper.toDepositRequest(item));
+            case WITHDRAWAL -> mapper.toWithdrawalTransaction(mapper.toWithdrawalRequest(item));
+            case TRANSFER -> mapper.toTransferOutTransaction(mapper.toTransferRequest(item));
+        };
+    }
+
+    /**
+     * Persiste todas las transacciones aceptadas del lote (ambos tramos de las transferencias)
+     * en un solo insertMany
+     */
+    private Mono<Void> saveBatch(List<BatchEntry> accepted) {
+        List<Transaction> transactions = accepted.stream()
+                .flatMap(entry -> entry.legs().stream())
+                .toList();
+
+        return metrics.timeStage(TransactionMetrics.STAGE_PERSISTENCE, TransactionMetrics.OPERATION_BATCH,
+                        transactionRepository.saveAll(transactions).then())
+                .doOnSuccess(unused -> log.info("✅ Lote guardado: {} transacciones", transactions.size()))
+                .onErrorMap(e -> {
+                    log.error("❌ Error guardando lote: {}", e.getMessage());
+                    return new TransactionPersistenceException("Error guardando lote: " + e.getMessage());
+                });
+    }
+
+    /**
+     * Valida con account-service; cada elemento pasa por el circuit breaker y el control de
+     * admisión, y resuelve su propio error sin abortar el lote. Sus tramos ya están persistidos,
+     * así que sin capacidad el elemento espera su turno en lugar de rechazarse; con el circuito
+     * abierto (503) quedan en REJECTED: su validación nunca llegó a enviarse.
+     */
+    private Mono<BatchResult> validateBatchEntry(BatchEntry entry) {
+        Transaction transaction = entry.transaction();
+
+        Mono<TransactionResponse> validation = Mono.defer(() -> switch (transaction.getTransactionType()) {
+            case DEPOSIT -> validateDepositWithAccount(transaction);
+            case WITHDRAWAL -> validateWithdrawWithAccount(transaction);
+            case TRANSFER -> validateTransferWithAccount(transaction, mapper.toTransferRequest(entry.item()));
+        });
+
+        // Retiros y transferencias esperan su turno en la cuenta debitada, como fuera del lote
+        Mono<TransactionResponse> guardedValidation = circuitBreaker.protect(
+                admissionLimiter.admitWhenAvailable(settle(entry.legs(), validation)));
+        Mono<TransactionResponse> ordered = transaction.getTransactionType() == TransactionType.DEPOSIT
+                ? guardedValidation
+                : sequencer.sequence(transaction.getAccountNumber(), guardedValidation);
+
+        return ordered
+                .doOnError(CircuitOpenException.class,
+                        error -> statusUpdater.submit(entry.legs(), TransactionStatus.REJECTED))
+                .onErrorResume(error -> handleError(error, "lote"))
+                .map(response -> new BatchResult(entry, response));
+    }
+
+    /**
+     * Elemento aceptado del lote; credit solo existe en transferencias
+     */
+    private record BatchEntry(int index, BatchTransactionItem item, Transaction transaction, Transaction credit) {
+
+        List<Transaction> legs() {
+            return credit != null ? List.of(transaction, credit) : List.of(transaction);
+        }
+    }
+
+    private record BatchResult(BatchEntry entry, TransactionResponse response) {
+    }
+
     // ========== SHARED HELPERS ==========
 
+    /**
+     * Circuit breaker y admisión antes de persistir: con el circuito abierto o sin capacidad
+     * la operación falla sin escribir en Mongo ni publicar en Kafka. En retiros y transferencias
+     * se evalúa ya dentro del turno del AccountSequencer, así que esperar turno no ocupa admisión.
+     */
+    private Mono<TransactionResponse> guarded(Mono<TransactionResponse> operation) {
+        return circuitBreaker.protect(admissionLimiter.admit(operation));
+    }
+
+    /**
+     * Registra el estado final en el actualizador write-behind: COMPLETED o REJECTED según la
+     * respuesta, TIMED_OUT si no llegó a tiempo. Con otros errores el resultado en account-service
+     * es desconocido y la transacción queda PENDING.
+     */
+    private Mono<TransactionResponse> settle(List<Transaction> transactions, Mono<TransactionResponse> validation) {
+        return validation
+                .doOnNext(response -> statusUpdater.submit(transactions, response.getCodResponse() == 200
+                        ? TransactionStatus.COMPLETED
+                        : TransactionStatus.REJECTED))
+                .doOnError(AccountValidationTimeoutException.class,
+                        error -> statusUpdater.submit(transactions, TransactionStatus.TIMED_OUT));
+    }
+
     private Mono<Transaction> saveTransaction(Transaction transaction) {
-        return transactionRepository.saveTransaction(transaction)
+        return metrics.timeStage(TransactionMetrics.STAGE_PERSISTENCE,
+                        transaction.getTransactionType().name().toLowerCase(),
+                        transactionRepository.saveTransaction(transaction))
                 .doOnSuccess(saved ->
                         log.info("✅ Transacción guardada: id={}, tipo={}",
                                 saved.getTransactionId(),
@@ -235,7 +685,74 @@ public class TransactionService implements TransactionInputPort {
                 });
     }
 
+    /**
+     * Con outbox la solicitud de validación se escribe en la misma transacción Mongo que las
+     * transacciones y la publica el relay: la latencia HTTP ya no depende del envío a Kafka.
+     * La primera transacción de la lista es la que se valida (el débito en transferencias).
+     */
+    private Mono<TransactionResponse> validateThroughOutbox(List<Transaction> transactions,
+                                                            String targetAccountNumber,
+                                                            String operation,
+                                                            Function<Transaction, Mono<Void>> onPersisted) {
+        Transaction transaction = transactions.get(0);
+
+        Mono<Void> write = metrics.timeStage(TransactionMetrics.STAGE_PERSISTENCE, operation,
+                        transactionRepository.saveWithOutbox(transactions,
+                                mapper.toOutboxMessage(transaction, targetAccountNumber)))
+                .doOnSuccess(unused ->
+                        log.info("✅ Transacción y outbox guardados: id={}, tipo={}",
+                                transaction.getTransactionId(), transaction.getTransactionType()))
+                .onErrorMap(e -> {
+                    log.error("❌ Error guardando transacción con outbox: {}", e.getMessage());
+                    return new TransactionPersistenceException(
+                            "Error guardando transacción: " + e.getMessage());
+                })
+                .then(Mono.defer(() -> onPersisted.apply(transaction)));
+
+        return accountValidation.awaitResponse(transaction.getTransactionId(), write)
+                .onErrorResume(AccountValidationTimeoutException.class,
+                        timeout -> expireOutbox(transaction).then(Mono.error(timeout)))
+                .doOnNext(response ->
+                        log.info("📨 Respuesta de account-service: status={}",
+                                response.getCodResponse()))
+                .map(kafkaResponse -> mapper.toResponseFromKafka(kafkaResponse, transaction))
+                .onErrorMap(e -> !(e instanceof TransactionPersistenceException)
+                        && !(e instanceof AccountValidationTimeoutException), e -> {
+                    log.error("❌ Error validando {} vía outbox", operation, e);
+                    return new AccountValidationException("Error validando " + operation + ": " + e.getMessage());
+                });
+    }
+
+    /**
+     * La espera venció: si el relay aún no reclamó la solicitud se descarta, para que
+     * account-service no aplique una transacción que ya queda TIMED_OUT
+     */
+    private Mono<Void> expireOutbox(Transaction transaction) {
+        return transactionRepository.expireOutbox(transaction.getTransactionId())
+                .doOnNext(expired -> {
+                    if (expired) {
+                        metrics.countOutboxRecords(TransactionMetrics.OUTBOX_EXPIRED, 1);
+                        log.warn("🗑️ Solicitud de outbox descartada tras timeout: transactionId={}",
+                                transaction.getTransactionId());
+                    }
+                })
+                .onErrorResume(error -> {
+                    log.error("❌ Error descartando solicitud de outbox: transactionId={}, error={}",
+                            transaction.getTransactionId(), error.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
     private Mono<TransactionResponse> handleError(Throwable error, String operationType) {
+        if (error instanceof AdmissionRejectedException) {
+            return Mono.just(mapper.toErrorResponse(429, error.getMessage()));
+        }
+
+        if (error instanceof CircuitOpenException) {
+            return Mono.just(mapper.toErrorResponse(503, error.getMessage()));
+        }
+
         if (error instanceof ValidationException) {
             return Mono.just(mapper.toErrorResponse(400, error.getMessage()));
         }
@@ -0,0 +1,27 @@
+package com.nttdata.transaction_service.domain.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchTransactionResponse {
+
+  // ========== Información de Estado ==========
+  private Integer codResponse;
+  private String messageResponse;
+
+  // ========== Resultado del Lote ==========
+  private Integer total;
+  private Integer succeeded;
+  private Integer failed;
+  private List<TransactionResponse> results;   // Mismo orden que los items del request
+}
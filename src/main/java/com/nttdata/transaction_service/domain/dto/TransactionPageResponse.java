@@ -0,0 +1,27 @@
+package com.nttdata.transaction_service.domain.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.nttdata.transaction_service.domain.model.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TransactionPageResponse {
+  private List<Transaction> data;
+
+  // ========== Cursor de la siguiente página ==========
+  private boolean hasMore;
+  private LocalDateTime nextTransactionDate;
+  private String nextTransactionId;
+
+  private String Error;
+}
@@ -19,8 +19,8 @@ import java.time.LocalDateTime;
 public class TransactionResponse {
 
   // ========== Información de Estado ==========
-  private Integer codResponse;        // Código HTTP (200, 400, 500, etc.)
-  private String status;              // COMPLETED, REJECTED, ERROR, PENDING
+  private Integer codResponse;        // Código HTTP (200, 202, 400, 500, etc.)
+  private String status;              // COMPLETED, REJECTED, ERROR, PENDING, TIMED_OUT
   private String messageResponse;     // Mensaje descriptivo
 
   // ========== Información de la Transacción ==========
@@ -0,0 +1,7 @@
+package com.nttdata.transaction_service.domain.error;
+
+public class AccountValidationTimeoutException extends AccountValidationException {
+    public AccountValidationTimeoutException(String message) {
+        super(message);
+    }
+}
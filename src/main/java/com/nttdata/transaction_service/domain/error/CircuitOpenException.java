@@ -0,0 +1,10 @@
+package com.nttdata.transaction_service.domain.error;
+
+/**
+ * El circuito hacia account-service está abierto: la operación se rechaza sin persistir ni publicar
+ */
+public class CircuitOpenException extends AccountValidationException {
+    public CircuitOpenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,22 @@
+package com.nttdata.transaction_service.domain.model;
+
+import com.nttdata.transaction_service.domain.model.enums.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountSummary {
+  private String accountNumber;
+  private BigDecimal balance;
+  private long transactionCount;
+  private LocalDateTime lastTransactionDate;
+  private Map<TransactionType, BigDecimal> totalsByType;
+}
@@ -0,0 +1,22 @@
+package com.nttdata.transaction_service.domain.model;
+
+import com.nttdata.transaction_service.domain.dto.TransactionResponse;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Reserva de un Idempotency-Key. response es nula mientras la operación sigue en curso o su
+ * resultado es desconocido; en ese caso transactionId (si ya se persistió) permite consultar su estado
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+  private String key;
+  private String requestHash;         // huella del cuerpo de la solicitud original
+  private String transactionId;
+  private TransactionResponse response;
+}
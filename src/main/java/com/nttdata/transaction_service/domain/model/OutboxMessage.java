@@ -0,0 +1,23 @@
+package com.nttdata.transaction_service.domain.model;
+
+import com.nttdata.transaction_service.domain.model.enums.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+
+/**
+ * Solicitud de validación pendiente de publicar, persistida junto con la transacción
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxMessage {
+  private String transactionId;
+  private String accountNumber;
+  private String targetAccountNumber;   // solo transferencias
+  private TransactionType transactionType;
+  private BigDecimal amount;            // siempre positivo
+}
@@ -1,5 +1,6 @@
 package com.nttdata.transaction_service.domain.model;
 
+import com.nttdata.transaction_service.domain.model.enums.TransactionStatus;
 import com.nttdata.transaction_service.domain.model.enums.TransactionType;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -11,7 +12,7 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Transaction {
   private String transactionId;
   private String accountNumber;
@@ -19,4 +20,5 @@ public class Transaction {
   private TransactionType transactionType;
   private BigDecimal amount;
   private String description;
+  private TransactionStatus status;
 }
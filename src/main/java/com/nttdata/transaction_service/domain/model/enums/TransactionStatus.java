@@ -0,0 +1,13 @@
+package com.nttdata.transaction_service.domain.model.enums;
+
+/**
+ * Ciclo de vida de una transacción: se inserta PENDING y pasa a COMPLETED o REJECTED según
+ * la respuesta de account-service, o a TIMED_OUT si la respuesta no llega a tiempo.
+ * Los tramos de una transferencia cambian de estado juntos.
+ */
+public enum TransactionStatus {
+  PENDING,
+  COMPLETED,
+  REJECTED,
+  TIMED_OUT
+}
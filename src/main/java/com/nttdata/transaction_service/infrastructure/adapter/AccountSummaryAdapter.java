@@ -0,0 +1,238 @@
+package com.nttdata.transaction_service.infrastructure.adapter;
+
+import com.nttdata.transaction_service.application.port.out.AccountSummaryOutputPort;
+import com.nttdata.transaction_service.domain.model.AccountSummary;
+import com.nttdata.transaction_service.domain.model.Transaction;
+import com.nttdata.transaction_service.domain.model.enums.TransactionStatus;
+import com.nttdata.transaction_service.domain.model.enums.TransactionType;
+import com.nttdata.transaction_service.infrastructure.entity.AccountSummaryEntity;
+import com.nttdata.transaction_service.infrastructure.entity.TransactionEntity;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.nttdata.transaction_service.infrastructure.utils.TransactionDocumentConverters.ACCOUNT_NUMBER;
+import static com.nttdata.transaction_service.infrastructure.utils.TransactionDocumentConverters.AMOUNT;
+import static com.nttdata.transaction_service.infrastructure.utils.TransactionDocumentConverters.STATUS;
+import static com.nttdata.transaction_service.infrastructure.utils.TransactionDocumentConverters.SUMMARY;
+import static com.nttdata.transaction_service.infrastructure.utils.TransactionDocumentConverters.SUMMARY_APPLIED;
+import static com.nttdata.transaction_service.infrastructure.utils.TransactionDocumentConverters.SUMMARY_APPLYING;
+import static com.nttdata.transaction_service.infrastructure.utils.TransactionDocumentConverters.SUMMARY_AT;
+import static com.nttdata.transaction_service.infrastructure.utils.TransactionDocumentConverters.TRANSACTION_DATE;
+import static com.nttdata.transaction_service.infrastructure.utils.TransactionDocumentConverters.TRANSACTION_TYPE;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccountSummaryAdapter implements AccountSummaryOutputPort {
+
+  private static final int MAX_REBUILD_ATTEMPTS = 5;
+  private static final Duration REBUILD_BACKOFF = Duration.ofMillis(50);
+  private static final Duration STALE_CLAIM = Duration.ofMinutes(1);
+  private static final String REVISION = "revision";
+
+  private final ReactiveMongoTemplate mongoTemplate;
+
+  @Override
+  public Mono<AccountSummary> findByAccountNumber(String accountNumber) {
+    return mongoTemplate.findById(accountNumber, AccountSummaryEntity.class)
+            .map(this::toDomain);
+  }
+
+  @Override
+  public Mono<Void> applyTransaction(Transaction transaction) {
+    Decimal128 amount = new Decimal128(transaction.getAmount());
+
+    Update update = new Update()
+            .inc("balance", amount)
+            .inc("transactionCount", 1)
+            .inc("totals." + transaction.getTransactionType().name(), amount)
+            .max("lastTransactionDate", transaction.getTransactionDate())
+            .inc(REVISION, 1);
+
+    return mongoTemplate.upsert(byAccount(transaction.getAccountNumber()), update, AccountSummaryEntity.class)
+            .then();
+  }
+
+  @Override
+  public Mono<Long> rebuildAll(int concurrency) {
+    String collection = mongoTemplate.getCollectionName(TransactionEntity.class);
+
+    // El $group se lee con cursor: no se acumula la lista de cuentas en memoria
+    Aggregation accounts = Aggregation.newAggregation(Aggregation.group("accountNumber"))
+            .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+
+    return mongoTemplate.aggregate(accounts, collection, Document.class)
+            .map(group -> group.getString("_id"))
+            .flatMap(this::rebuild, concurrency)
+            .count();
+  }
+
+  // ========== PRIVATE HELPERS ==========
+
+  /**
+   * Recalcula el resumen de una cuenta a partir de los aportes ya aplicados (APPLIED o legados).
+   * Se reintenta con backoff si un $inc llega entre la lectura de la revisión y el reemplazo, o
+   * si alguna transacción de la cuenta tiene su $inc en curso (APPLYING): no se sabe si ya está
+   * en el resumen.
+   */
+  private Mono<String> rebuild(String accountNumber) {
+    return Mono.defer(() -> releaseStaleClaims(accountNumber)
+                    .then(mongoTemplate.findById(accountNumber, AccountSummaryEntity.class)
+                            .map(summary -> Optional.ofNullable(summary.getRevision()))
+                            .defaultIfEmpty(Optional.empty()))
+                    .flatMap(revision -> aggregate(accountNumber)
+                            .flatMap(groups -> replaceSummary(accountNumber, groups, revision.orElse(null)))))
+            .retryWhen(Retry.backoff(MAX_REBUILD_ATTEMPTS - 1, REBUILD_BACKOFF)
+                    .filter(SummaryChangedException.class::isInstance))
+            .doOnSuccess(unused -> log.debug("🔁 Resumen recalculado: cuenta={}", accountNumber))
+            .thenReturn(accountNumber)
+            .onErrorResume(Exceptions::isRetryExhausted, error -> {
+              log.warn("⚠️ Resumen de cuenta {} modificado durante {} reconstrucciones, se omite: {}",
+                      accountNumber, MAX_REBUILD_ATTEMPTS, error.getCause().getMessage());
+              return Mono.empty();
+            });
+  }
+
+  /**
+   * Un APPLYING antiguo quedó huérfano (la réplica cayó o falló entre la marca y el $inc): se da
+   * por aplicado y la reconstrucción lo cuenta, haya llegado o no su $inc
+   */
+  private Mono<Void> releaseStaleClaims(String accountNumber) {
+    return mongoTemplate.updateMulti(
+                    Query.query(Criteria.where(ACCOUNT_NUMBER).is(accountNumber)
+                            .and(SUMMARY).is(SUMMARY_APPLYING)
+                            .and(SUMMARY_AT).lt(Instant.now().minus(STALE_CLAIM))),
+                    Update.update(SUMMARY, SUMMARY_APPLIED).unset(SUMMARY_AT),
+                    TransactionEntity.class)
+            .then();
+  }
+
+  /**
+   * Agrupa por tipo y estado del aporte las transacciones que cuentan en el resumen (usa el índice
+   * por cuenta): las APPLIED, las APPLYING (para detectarlas) y las legadas liquidadas
+   */
+  private Mono<List<Document>> aggregate(String accountNumber) {
+    Criteria legacySettled = Criteria.where(SUMMARY).exists(false)
+            .and(STATUS).nin(TransactionStatus.PENDING.name(), TransactionStatus.REJECTED.name(),
+                    TransactionStatus.TIMED_OUT.name());
+
+    Aggregation byType = Aggregation.newAggregation(
+            Aggregation.match(Criteria.where(ACCOUNT_NUMBER).is(accountNumber)
+                    .orOperator(Criteria.where(SUMMARY).in(SUMMARY_APPLIED, SUMMARY_APPLYING), legacySettled)),
+            // $toDecimal admite tanto Decimal128 como los montos String aún no migrados
+            Aggregation.group(TRANSACTION_TYPE, SUMMARY)
+                    .sum(ConvertOperators.valueOf(AMOUNT).convertToDecimal()).as("total")
+                    .count().as("count")
+                    .max(TRANSACTION_DATE).as("lastTransactionDate"));
+
+    return mongoTemplate.aggregate(byType, mongoTemplate.getCollectionName(TransactionEntity.class), Document.class)
+            .collectList();
+  }
+
+  /**
+   * Reemplaza el resumen solo si sigue en la revisión leída antes de agregar. Sin revisión
+   * (resumen inexistente o anterior al campo) el upsert choca con el _id de un resumen creado
+   * entretanto por un $inc.
+   */
+  private Mono<Void> replaceSummary(String accountNumber, List<Document> groups, Long revision) {
+    BigDecimal balance = BigDecimal.ZERO;
+    long count = 0;
+    Date lastTransactionDate = null;
+    Map<String, BigDecimal> totals = new HashMap<>();
+
+    for (Document group : groups) {
+      Document key = group.get("_id", Document.class);
+      if (SUMMARY_APPLYING.equals(key.getString(SUMMARY))) {
+        return Mono.error(new SummaryChangedException("$inc en curso"));
+      }
+
+      BigDecimal total = group.get("total", Decimal128.class).bigDecimalValue();
+      balance = balance.add(total);
+      count += group.get("count", Number.class).longValue();
+      totals.merge(key.getString(TRANSACTION_TYPE), total, BigDecimal::add);
+
+      Date groupLast = group.getDate("lastTransactionDate");
+      if (lastTransactionDate == null || (groupLast != null && groupLast.after(lastTransactionDate))) {
+        lastTransactionDate = groupLast;
+      }
+    }
+
+    Document totalsByType = new Document();
+    totals.forEach((type, total) -> totalsByType.append(type, new Decimal128(total)));
+
+    Update update = new Update()
+            .set("balance", new Decimal128(balance))
+            .set("transactionCount", count)
+            .set("lastTransactionDate", lastTransactionDate)
+            .set("totals", totalsByType)
+            .inc(REVISION, 1);
+
+    Mono<Boolean> replaced;
+    if (revision == null) {
+      Query unrevised = Query.query(Criteria.where("_id").is(accountNumber).and(REVISION).exists(false));
+      replaced = mongoTemplate.upsert(unrevised, update, AccountSummaryEntity.class)
+              .map(result -> true)
+              .onErrorResume(DuplicateKeyException.class, error -> Mono.just(false));
+    } else {
+      Query sameRevision = Query.query(Criteria.where("_id").is(accountNumber).and(REVISION).is(revision));
+      replaced = mongoTemplate.updateFirst(sameRevision, update, AccountSummaryEntity.class)
+              .map(result -> result.getMatchedCount() > 0);
+    }
+
+    return replaced.flatMap(ok -> ok
+            ? Mono.<Void>empty()
+            : Mono.<Void>error(new SummaryChangedException("revisión modificada")));
+  }
+
+  private Query byAccount(String accountNumber) {
+    return Query.query(Criteria.where("_id").is(accountNumber));
+  }
+
+  private AccountSummary toDomain(AccountSummaryEntity entity) {
+    Map<TransactionType, BigDecimal> totalsByType = new EnumMap<>(TransactionType.class);
+    if (entity.getTotals() != null) {
+      entity.getTotals().forEach((type, total) -> totalsByType.put(TransactionType.valueOf(type), total));
+    }
+
+    return AccountSummary.builder()
+            .accountNumber(entity.getAccountNumber())
+            .balance(entity.getBalance() != null ? entity.getBalance() : BigDecimal.ZERO)
+            .transactionCount(entity.getTransactionCount())
+            .lastTransactionDate(entity.getLastTransactionDate())
+            .totalsByType(totalsByType)
+            .build();
+  }
+
+  /**
+   * El resumen o sus aportes cambiaron durante la reconstrucción: se vuelve a intentar
+   */
+  private static final class SummaryChangedException extends RuntimeException {
+    private SummaryChangedException(String message) {
+      super(message, null, false, false);
+    }
+  }
+}
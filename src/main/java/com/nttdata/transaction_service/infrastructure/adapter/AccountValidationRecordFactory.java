@@ -0,0 +1,131 @@
+package com.nttdata.transaction_service.infrastructure.adapter;
+
+import com.ettdata.avro.AccountValidationBatchRequest;
+import com.ettdata.avro.AccountValidationItem;
+import com.ettdata.avro.AccountValidationRequest;
+import com.nttdata.transaction_service.infrastructure.config.AmountEncodingProperties;
+import com.nttdata.transaction_service.infrastructure.config.KafkaTopicProperties;
+import com.nttdata.transaction_service.infrastructure.config.ReplyRoutingProperties;
+import com.nttdata.transaction_service.infrastructure.handler.ValidationCoalescer;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Construye las solicitudes de validación (Avro + headers de respuesta), compartido por
+ * las implementaciones de AccountValidationOutputPort
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountValidationRecordFactory {
+
+    private final KafkaTopicProperties topicProperties;
+    private final ReplyRoutingProperties replyRouting;
+    private final AmountEncodingProperties amountEncoding;
+
+    public ProducerRecord<String, AccountValidationRequest> create(
+            String transactionId,
+            String accountNumber,
+            BigDecimal amount,
+            String transactionType,
+            String targetAccountNumber) {
+
+        return create(transactionId, accountNumber, amount, transactionType, targetAccountNumber,
+                replyRouting.getInstanceId());
+    }
+
+    /**
+     * Variante del relay de outbox: la respuesta vuelve a la réplica que registró la espera,
+     * no a la que publica
+     */
+    public ProducerRecord<String, AccountValidationRequest> create(
+            String transactionId,
+            String accountNumber,
+            BigDecimal amount,
+            String transactionType,
+            String targetAccountNumber,
+            String replyInstanceId) {
+
+        AccountValidationRequest.Builder requestBuilder = AccountValidationRequest.newBuilder()
+                .setTransactionId(transactionId)
+                .setAccountNumber(accountNumber)
+                .setTransactionType(transactionType)
+                .setAmountMinorUnits(toMinorUnits(amount));
+
+        // El double legado solo viaja mientras queden consumidores v1 (sin él, el union se codifica en 1 byte)
+        if (amountEncoding.isLegacyDouble()) {
+            requestBuilder.setAmount(amount.doubleValue());
+        }
+
+        // Agregar cuenta destino si es transferencia
+        if (targetAccountNumber != null) {
+            requestBuilder.setTargetAccountNumber(targetAccountNumber);
+        }
+
+        ProducerRecord<String, AccountValidationRequest> record = new ProducerRecord<>(
+                topicProperties.getAccountValidationRequest(), accountNumber, requestBuilder.build());
+        addReplyHeaders(record, transactionId, topicProperties.getAccountValidationResponse(), replyInstanceId);
+        return record;
+    }
+
+    /**
+     * Lote coalescido de depósitos y retiros de una cuenta; la respuesta se correlaciona por batchId
+     */
+    public ProducerRecord<String, AccountValidationBatchRequest> createBatch(
+            String batchId,
+            String accountNumber,
+            List<ValidationCoalescer.Item> items) {
+
+        List<AccountValidationItem> batchItems = new ArrayList<>(items.size());
+        long net = 0;
+        for (ValidationCoalescer.Item item : items) {
+            long minorUnits = toMinorUnits(item.amount());
+            net += "WITHDRAWAL".equals(item.transactionType()) ? -minorUnits : minorUnits;
+            batchItems.add(AccountValidationItem.newBuilder()
+                    .setTransactionId(item.transactionId())
+                    .setTransactionType(item.transactionType())
+                    .setAmountMinorUnits(minorUnits)
+                    .build());
+        }
+
+        AccountValidationBatchRequest batch = AccountValidationBatchRequest.newBuilder()
+                .setBatchId(batchId)
+                .setAccountNumber(accountNumber)
+                .setNetAmountMinorUnits(net)
+                .setItems(batchItems)
+                .build();
+
+        ProducerRecord<String, AccountValidationBatchRequest> record = new ProducerRecord<>(
+                topicProperties.getAccountValidationBatchRequest(), accountNumber, batch);
+        addReplyHeaders(record, batchId, topicProperties.getAccountValidationBatchResponse(),
+                replyRouting.getInstanceId());
+        return record;
+    }
+
+    /**
+     * Monto exacto en unidades mínimas; TransactionValidator ya garantiza como máximo 2 decimales,
+     * así que longValueExact solo falla ante un monto que no pasó por la validación
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.movePointRight(AmountEncodingProperties.MINOR_UNIT_SCALE).longValueExact();
+    }
+
+    /**
+     * Indica a account-service a qué topic e instancia debe volver la respuesta; el
+     * correlation id (transactionId o batchId) debe devolverse tal cual en la respuesta
+     */
+    private void addReplyHeaders(ProducerRecord<String, ?> record, String correlationId,
+                                 String replyTopic, String replyInstanceId) {
+        record.headers()
+                .add(KafkaHeaders.CORRELATION_ID, correlationId.getBytes(StandardCharsets.UTF_8))
+                .add(KafkaHeaders.REPLY_TOPIC, replyTopic.getBytes(StandardCharsets.UTF_8))
+                .add(ReplyRoutingProperties.REPLY_INSTANCE_HEADER,
+                        replyInstanceId.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,49 @@
+package com.nttdata.transaction_service.infrastructure.adapter;
+
+import com.ettdata.avro.AccountValidationResponse;
+import io.confluent.kafka.serializers.KafkaAvroDeserializer;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Decodifica bajo demanda el valor Avro de una respuesta. El listener recibe bytes y solo
+ * decodifica los registros cuyo transactionId tiene un sink pendiente en esta instancia.
+ */
+@Component
+public class AccountValidationResponseDecoder {
+
+    private final KafkaAvroDeserializer deserializer = new KafkaAvroDeserializer();
+
+    @Autowired
+    public AccountValidationResponseDecoder(KafkaProperties kafkaProperties) {
+        this(kafkaProperties.buildConsumerProperties(null));
+    }
+
+    /**
+     * @param config propiedades del consumidor (schema.registry.url, specific.avro.reader)
+     */
+    public AccountValidationResponseDecoder(Map<String, ?> config) {
+        deserializer.configure(config, false);
+    }
+
+    public AccountValidationResponse decode(ConsumerRecord<String, byte[]> record) {
+        return (AccountValidationResponse) decodeValue(record);
+    }
+
+    /**
+     * Decodifica con el tipo del schema del escritor (p. ej. AccountValidationBatchResponse)
+     */
+    public Object decodeValue(ConsumerRecord<String, byte[]> record) {
+        return deserializer.deserialize(record.topic(), record.headers(), record.value());
+    }
+
+    @PreDestroy
+    public void close() {
+        deserializer.close();
+    }
+}
@@ -0,0 +1,159 @@
+package com.nttdata.transaction_service.infrastructure.adapter;
+
+import com.ettdata.avro.AccountValidationBatchRequest;
+import com.ettdata.avro.AccountValidationRequest;
+import com.ettdata.avro.AccountValidationResponse;
+import com.nttdata.transaction_service.infrastructure.config.OutboxProperties;
+import com.nttdata.transaction_service.infrastructure.handler.PendingResponseHandler;
+import com.nttdata.transaction_service.infrastructure.handler.ValidationCoalescer;
+import com.nttdata.transaction_service.infrastructure.metrics.TransactionMetrics;
+import com.nttdata.transaction_service.infrastructure.utils.TransactionIdGenerator;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Agrupa en una ventana corta los depósitos y retiros de una misma cuenta y los valida con un
+ * único AccountValidationBatchRequest (montos netos + detalle por operación). Cada operación
+ * conserva su sink en PendingResponseHandler; la respuesta del lote se reparte entre ellos.
+ * Una ventana con una sola operación se envía como solicitud individual. Solo se aplica al
+ * productor con KafkaTemplate: con sender=reactive u outbox activo el arranque falla.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "transaction.kafka.coalescing.enabled", havingValue = "true")
+public class CoalescingValidationSender {
+
+    private static final String TEMPLATE_SENDER = "template";
+
+    private final KafkaTemplate<String, AccountValidationRequest> requestTemplate;
+    private final KafkaTemplate<String, AccountValidationBatchRequest> batchTemplate;
+    private final AccountValidationRecordFactory recordFactory;
+    private final PendingResponseHandler responseHandler;
+    private final TransactionIdGenerator idGenerator;
+    private final TransactionMetrics metrics;
+    private final ValidationCoalescer coalescer;
+
+    public CoalescingValidationSender(KafkaTemplate<String, AccountValidationRequest> requestTemplate,
+                                      KafkaTemplate<String, AccountValidationBatchRequest> batchTemplate,
+                                      AccountValidationRecordFactory recordFactory,
+                                      PendingResponseHandler responseHandler,
+                                      TransactionIdGenerator idGenerator,
+                                      TransactionMetrics metrics,
+                                      OutboxProperties outbox,
+                                      @Value("${transaction.kafka.sender:template}") String sender,
+                                      @Value("${transaction.kafka.coalescing.window-millis:2}") long windowMillis,
+                                      @Value("${transaction.kafka.coalescing.max-items:64}") int maxItems) {
+        // Esas rutas no pasan por este componente: la coalescencia quedaría desactivada en silencio
+        if (!TEMPLATE_SENDER.equals(sender) || outbox.isEnabled()) {
+            throw new IllegalStateException("transaction.kafka.coalescing.enabled=true requiere "
+                    + "transaction.kafka.sender=template y transaction.outbox.enabled=false "
+                    + "(sender=" + sender + ", outbox.enabled=" + outbox.isEnabled() + ")");
+        }
+        this.requestTemplate = requestTemplate;
+        this.batchTemplate = batchTemplate;
+        this.recordFactory = recordFactory;
+        this.responseHandler = responseHandler;
+        this.idGenerator = idGenerator;
+        this.metrics = metrics;
+        this.coalescer = new ValidationCoalescer(windowMillis, maxItems, Schedulers.parallel(), this::send);
+        log.info("🧺 Coalescencia de validaciones activa: ventana={} ms, máximo={} operaciones",
+                windowMillis, maxItems);
+    }
+
+    /**
+     * Registra la espera y encola la operación en la ventana de su cuenta
+     */
+    public Mono<AccountValidationResponse> validate(String transactionId,
+                                                    String accountNumber,
+                                                    BigDecimal amount,
+                                                    String transactionType) {
+        ValidationCoalescer.Item item =
+                new ValidationCoalescer.Item(transactionId, accountNumber, transactionType, amount);
+        String operation = transactionType.toLowerCase();
+
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+
+            // La espera incluye la ventana: es la latencia que añade la coalescencia
+            return Mono.<AccountValidationResponse>create(sink -> {
+                        responseHandler.register(transactionId, sink);
+                        coalescer.add(item);
+                    })
+                    .doOnSuccess(response -> metrics.recordStage(TransactionMetrics.STAGE_REPLY_WAIT, operation,
+                            TransactionMetrics.OUTCOME_SUCCESS, System.nanoTime() - start))
+                    .doOnError(error -> metrics.recordStage(TransactionMetrics.STAGE_REPLY_WAIT, operation,
+                            TransactionMetrics.OUTCOME_ERROR, System.nanoTime() - start));
+        });
+    }
+
+    /**
+     * Entrega lo que quede en las ventanas antes de detener el productor
+     */
+    @PreDestroy
+    public void shutdown() {
+        coalescer.flushAll();
+    }
+
+    // ========== PRIVATE HELPERS ==========
+
+    private void send(List<ValidationCoalescer.Item> items) {
+        if (items.size() == 1) {
+            sendSingle(items.get(0));
+        } else {
+            sendBatch(items);
+        }
+    }
+
+    private void sendSingle(ValidationCoalescer.Item item) {
+        long start = System.nanoTime();
+        requestTemplate.send(recordFactory.create(
+                        item.transactionId(), item.accountNumber(), item.amount(), item.transactionType(), null))
+                .whenComplete((result, ex) -> {
+                    recordSend(item.transactionType().toLowerCase(), start, ex);
+                    if (ex != null) {
+                        log.error("❌ Error enviando mensaje a Kafka: transactionId={}, error={}",
+                                item.transactionId(), ex.getMessage(), ex);
+                        responseHandler.error(item.transactionId(), ex);
+                    }
+                });
+    }
+
+    private void sendBatch(List<ValidationCoalescer.Item> items) {
+        String accountNumber = items.get(0).accountNumber();
+        String batchId = idGenerator.nextId();
+        long start = System.nanoTime();
+
+        // Se registra antes de enviar: la respuesta puede llegar antes del ack del envío
+        responseHandler.registerBatch(batchId,
+                items.stream().map(ValidationCoalescer.Item::transactionId).toList());
+        metrics.countCoalesced(items.size());
+
+        batchTemplate.send(recordFactory.createBatch(batchId, accountNumber, items))
+                .whenComplete((result, ex) -> {
+                    recordSend(TransactionMetrics.OPERATION_COALESCED, start, ex);
+                    if (ex != null) {
+                        log.error("❌ Error enviando lote a Kafka: batchId={}, operaciones={}, error={}",
+                                batchId, items.size(), ex.getMessage(), ex);
+                        responseHandler.errorBatch(batchId, ex);
+                    } else {
+                        log.debug("✅ Lote enviado a Kafka: batchId={}, cuenta={}, operaciones={}",
+                                batchId, accountNumber, items.size());
+                    }
+                });
+    }
+
+    private void recordSend(String operation, long start, Throwable error) {
+        metrics.recordStage(TransactionMetrics.STAGE_KAFKA_SEND, operation,
+                error == null ? TransactionMetrics.OUTCOME_SUCCESS : TransactionMetrics.OUTCOME_ERROR,
+                System.nanoTime() - start);
+    }
+}
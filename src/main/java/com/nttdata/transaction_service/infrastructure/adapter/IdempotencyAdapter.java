@@ -0,0 +1,110 @@
+package com.nttdata.transaction_service.infrastructure.adapter;
+
+import com.nttdata.transaction_service.application.port.out.IdempotencyOutputPort;
+import com.nttdata.transaction_service.domain.dto.TransactionResponse;
+import com.nttdata.transaction_service.domain.model.IdempotencyRecord;
+import com.nttdata.transaction_service.infrastructure.entity.IdempotencyEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@Component
+public class IdempotencyAdapter implements IdempotencyOutputPort {
+
+  private final ReactiveMongoTemplate mongoTemplate;
+  private final Duration reservationLease;
+
+  public IdempotencyAdapter(ReactiveMongoTemplate mongoTemplate,
+                            @Value("${transaction.idempotency.reservation-lease-seconds:30}") long leaseSeconds) {
+    this.mongoTemplate = mongoTemplate;
+    this.reservationLease = Duration.ofSeconds(leaseSeconds);
+  }
+
+  @Override
+  public Mono<Boolean> reserve(String key, String requestHash) {
+    return Mono.defer(() -> {
+      Instant now = Instant.now();
+      IdempotencyEntity entity = IdempotencyEntity.builder()
+              .key(key)
+              .requestHash(requestHash)
+              .createdAt(now)
+              .reservedUntil(now.plus(reservationLease))
+              .build();
+
+      // insert (no save): el índice único de _id decide qué réplica ejecuta la operación
+      return mongoTemplate.insert(entity)
+              .thenReturn(true)
+              .onErrorResume(DuplicateKeyException.class, duplicate -> takeOver(key, requestHash, now));
+    });
+  }
+
+  @Override
+  public Mono<IdempotencyRecord> find(String key) {
+    return mongoTemplate.findById(key, IdempotencyEntity.class)
+            .map(entity -> IdempotencyRecord.builder()
+                    .key(entity.getKey())
+                    .requestHash(entity.getRequestHash())
+                    .transactionId(entity.getTransactionId())
+                    .response(entity.getResponse())
+                    .build());
+  }
+
+  @Override
+  public Mono<Void> bindTransaction(String key, String transactionId) {
+    // Solo la primera transacción liga la clave
+    return mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("_id").is(key).and("transactionId").is(null)),
+                    Update.update("transactionId", transactionId),
+                    IdempotencyEntity.class)
+            .then();
+  }
+
+  @Override
+  public Mono<Void> complete(String key, TransactionResponse response) {
+    return mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("_id").is(key)),
+                    Update.update("response", response),
+                    IdempotencyEntity.class)
+            .then();
+  }
+
+  @Override
+  public Mono<Void> release(String key) {
+    // Solo reservas sin transacción: si algo llegó a persistirse la clave queda ligada a ello
+    return mongoTemplate.remove(
+                    Query.query(Criteria.where("_id").is(key)
+                            .and("transactionId").is(null)
+                            .and("response").is(null)),
+                    IdempotencyEntity.class)
+            .then();
+  }
+
+  /**
+   * Una reserva sin transacción ni respuesta cuyo lease venció quedó huérfana (la réplica cayó antes
+   * de persistir): la toma la solicitud actual. Las reservas previas al lease no tienen reservedUntil.
+   */
+  private Mono<Boolean> takeOver(String key, String requestHash, Instant now) {
+    Query orphaned = Query.query(new Criteria().andOperator(
+            Criteria.where("_id").is(key),
+            Criteria.where("transactionId").is(null),
+            Criteria.where("response").is(null),
+            new Criteria().orOperator(
+                    Criteria.where("reservedUntil").lt(now),
+                    Criteria.where("reservedUntil").exists(false))));
+
+    return mongoTemplate.updateFirst(orphaned,
+                    new Update()
+                            .set("requestHash", requestHash)
+                            .set("reservedUntil", now.plus(reservationLease)),
+                    IdempotencyEntity.class)
+            .map(result -> result.getModifiedCount() > 0);
+  }
+}
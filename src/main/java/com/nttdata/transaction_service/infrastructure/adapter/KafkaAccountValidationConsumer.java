@@ -1,35 +1,181 @@
 package com.nttdata.transaction_service.infrastructure.adapter;
 
 
+import com.ettdata.avro.AccountValidationBatchResponse;
 import com.ettdata.avro.AccountValidationResponse;
+import com.nttdata.transaction_service.infrastructure.config.ReplyRoutingProperties;
 import com.nttdata.transaction_service.infrastructure.handler.PendingResponseHandler;
+import com.nttdata.transaction_service.infrastructure.metrics.TransactionMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cada réplica consume con un group-id propio, de modo que todas las respuestas llegan a la
+ * instancia que registró el sink. Los registros se reciben como bytes: los dirigidos a otra
+ * instancia o cuyo correlation id no está pendiente se descartan sin decodificar el Avro.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class KafkaAccountValidationConsumer {
 
     private final PendingResponseHandler responseHandler;
+    private final ReplyRoutingProperties replyRouting;
+    private final AccountValidationResponseDecoder decoder;
+    private final TransactionMetrics metrics;
 
+    /**
+     * Procesa el lote recibido en un poll y confirma sus offsets una sola vez al final
+     */
     @KafkaListener(
             topics = "${kafka.topics.account-validation-response}",
-            groupId = "${spring.kafka.consumer.group-id}"
+            groupId = "${spring.kafka.consumer.group-id}-#{@replyRoutingProperties.instanceId}",
+            batch = "true",
+            concurrency = "${transaction.kafka.listener.concurrency:2}",
+            properties = "value.deserializer=org.apache.kafka.common.serialization.ByteArrayDeserializer"
     )
-    public void consumeAccountValidationResponse(AccountValidationResponse response) {
-        String transactionId = String.valueOf(response.getTransactionId());
+    public void consumeAccountValidationResponses(List<ConsumerRecord<String, byte[]>> records,
+                                                  Acknowledgment acknowledgment) {
+        // Con header propio la respuesta debe tener sink; sin header puede ser de otra réplica
+        List<AccountValidationResponse> addressed = new ArrayList<>(records.size());
+        List<AccountValidationResponse> unaddressed = new ArrayList<>();
+        int skipped = 0;
+        int unexpected = 0;
+
+        for (ConsumerRecord<String, byte[]> record : records) {
+            if (record.value() == null) {
+                continue;
+            }
 
-        log.info("📨 Respuesta recibida: transactionId={}, status={}",
-                transactionId, response.getCodResponse());
+            String replyInstance = headerOf(record, ReplyRoutingProperties.REPLY_INSTANCE_HEADER);
+            boolean ownInstance = replyInstance != null && replyInstance.equals(replyRouting.getInstanceId());
+            if (replyInstance != null && !ownInstance) {
+                skipped++;
+                continue;
+            }
 
-        boolean completed = responseHandler.complete(transactionId, response);
+            String correlationId = headerOf(record, KafkaHeaders.CORRELATION_ID);
+            if (correlationId != null && !responseHandler.isPending(correlationId)) {
+                skipped++;
+                if (ownInstance) {
+                    unexpected++;
+                }
+                continue;
+            }
 
-        if (!completed) {
-            log.warn("⚠️ Respuesta para transacción no esperada: {}", transactionId);
+            AccountValidationResponse response = decode(record);
+            if (response == null) {
+                continue;
+            }
+            if (ownInstance) {
+                addressed.add(response);
+            } else {
+                unaddressed.add(response);
+            }
         }
+
+        int decoded = addressed.size() + unaddressed.size();
+        metrics.countReplyRecords(TransactionMetrics.REPLY_SKIPPED, skipped);
+        metrics.countReplyRecords(TransactionMetrics.REPLY_DECODED, decoded);
+
+        int completedAddressed = responseHandler.completeAll(addressed);
+        int completed = completedAddressed + responseHandler.completeAll(unaddressed);
+        unexpected += addressed.size() - completedAddressed;
+
+        if (unexpected > 0) {
+            log.warn("⚠️ {} respuestas para transacciones no esperadas (expiradas o duplicadas)", unexpected);
+        }
+
+        log.debug("📨 Lote de respuestas: recibidas={}, descartadas={}, decodificadas={}, completadas={}",
+                records.size(), skipped, decoded, completed);
+
+        acknowledgment.acknowledge();
     }
 
+    /**
+     * Respuestas consolidadas de los lotes coalescidos (correlation id = batchId): cada una se
+     * reparte a los sinks de las transacciones del lote. Solo arranca con la coalescencia activa.
+     */
+    @KafkaListener(
+            topics = "${kafka.topics.account-validation-batch-response}",
+            groupId = "${spring.kafka.consumer.group-id}-#{@replyRoutingProperties.instanceId}",
+            batch = "true",
+            autoStartup = "${transaction.kafka.coalescing.enabled:false}",
+            properties = "value.deserializer=org.apache.kafka.common.serialization.ByteArrayDeserializer"
+    )
+    public void consumeAccountValidationBatchResponses(List<ConsumerRecord<String, byte[]>> records,
+                                                       Acknowledgment acknowledgment) {
+        List<AccountValidationResponse> expanded = new ArrayList<>();
+        int skipped = 0;
+        int decoded = 0;
+
+        for (ConsumerRecord<String, byte[]> record : records) {
+            if (record.value() == null) {
+                continue;
+            }
+
+            String replyInstance = headerOf(record, ReplyRoutingProperties.REPLY_INSTANCE_HEADER);
+            String batchId = headerOf(record, KafkaHeaders.CORRELATION_ID);
+            if ((replyInstance != null && !replyInstance.equals(replyRouting.getInstanceId()))
+                    || (batchId != null && !responseHandler.isPending(batchId))) {
+                skipped++;
+                continue;
+            }
+
+            if (decodeValue(record) instanceof AccountValidationBatchResponse batch) {
+                decoded++;
+                expanded.addAll(responseHandler.expandBatch(batch));
+            }
+        }
+
+        metrics.countReplyRecords(TransactionMetrics.REPLY_SKIPPED, skipped);
+        metrics.countReplyRecords(TransactionMetrics.REPLY_DECODED, decoded);
+        int completed = responseHandler.completeAll(expanded);
+
+        log.debug("📨 Lote de respuestas consolidadas: recibidas={}, descartadas={}, lotes={}, completadas={}",
+                records.size(), skipped, decoded, completed);
+
+        acknowledgment.acknowledge();
+    }
+
+    // ========== PRIVATE HELPERS ==========
+
+    private Object decodeValue(ConsumerRecord<String, byte[]> record) {
+        try {
+            return decoder.decodeValue(record);
+        } catch (SerializationException e) {
+            log.error("❌ Respuesta consolidada no decodificable: partition={}, offset={}, error={}",
+                    record.partition(), record.offset(), e.getMessage());
+            return null;
+        }
+    }
+
+    private AccountValidationResponse decode(ConsumerRecord<String, byte[]> record) {
+        try {
+            return decoder.decode(record);
+        } catch (SerializationException e) {
+            log.error("❌ Respuesta no decodificable: partition={}, offset={}, error={}",
+                    record.partition(), record.offset(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Valor de un header como texto (null si el productor no lo propaga)
+     */
+    private String headerOf(ConsumerRecord<String, byte[]> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
 }
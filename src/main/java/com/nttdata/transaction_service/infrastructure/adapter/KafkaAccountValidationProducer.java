@@ -3,10 +3,13 @@ package com.nttdata.transaction_service.infrastructure.adapter;
 import com.ettdata.avro.AccountValidationRequest;
 import com.ettdata.avro.AccountValidationResponse;
 import com.nttdata.transaction_service.application.port.out.AccountValidationOutputPort;
-import com.nttdata.transaction_service.infrastructure.config.KafkaTopicProperties;
 import com.nttdata.transaction_service.infrastructure.handler.PendingResponseHandler;
-import lombok.RequiredArgsConstructor;
+import com.nttdata.transaction_service.infrastructure.metrics.TransactionMetrics;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
@@ -15,12 +18,45 @@ import java.math.BigDecimal;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
+@ConditionalOnProperty(name = "transaction.kafka.sender", havingValue = "template", matchIfMissing = true)
 public class KafkaAccountValidationProducer implements AccountValidationOutputPort {
 
     private final KafkaTemplate<String, AccountValidationRequest> kafkaTemplate;
     private final PendingResponseHandler responseHandler;
-    private final KafkaTopicProperties topicProperties;
+    private final AccountValidationRecordFactory recordFactory;
+    private final TransactionMetrics metrics;
+    private final OutboxResponseAwaiter outboxAwaiter;
+    // Solo existe con transaction.kafka.coalescing.enabled=true
+    private final CoalescingValidationSender coalescing;
+
+    @Autowired
+    public KafkaAccountValidationProducer(KafkaTemplate<String, AccountValidationRequest> kafkaTemplate,
+                                          PendingResponseHandler responseHandler,
+                                          AccountValidationRecordFactory recordFactory,
+                                          TransactionMetrics metrics,
+                                          ObjectProvider<CoalescingValidationSender> coalescing) {
+        this(kafkaTemplate, responseHandler, recordFactory, metrics, coalescing.getIfAvailable());
+    }
+
+    public KafkaAccountValidationProducer(KafkaTemplate<String, AccountValidationRequest> kafkaTemplate,
+                                          PendingResponseHandler responseHandler,
+                                          AccountValidationRecordFactory recordFactory,
+                                          TransactionMetrics metrics) {
+        this(kafkaTemplate, responseHandler, recordFactory, metrics, (CoalescingValidationSender) null);
+    }
+
+    private KafkaAccountValidationProducer(KafkaTemplate<String, AccountValidationRequest> kafkaTemplate,
+                                           PendingResponseHandler responseHandler,
+                                           AccountValidationRecordFactory recordFactory,
+                                           TransactionMetrics metrics,
+                                           CoalescingValidationSender coalescing) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.responseHandler = responseHandler;
+        this.recordFactory = recordFactory;
+        this.metrics = metrics;
+        this.coalescing = coalescing;
+        this.outboxAwaiter = new OutboxResponseAwaiter(responseHandler, metrics);
+    }
 
     // ========== WITHDRAW ==========
 
@@ -33,6 +69,10 @@ public class KafkaAccountValidationProducer implements AccountValidationOutputPo
         log.info("💰 Enviando solicitud de retiro: transactionId={}, account={}, amount={}",
                 transactionId, accountNumber, amount);
 
+        if (coalescing != null) {
+            return coalescing.validate(transactionId, accountNumber, amount, "WITHDRAWAL");
+        }
+
         return sendValidationRequest(
                 transactionId,
                 accountNumber,
@@ -52,6 +92,10 @@ public class KafkaAccountValidationProducer implements AccountValidationOutputPo
         log.info("💵 Enviando solicitud de depósito: transactionId={}, account={}, amount={}",
                 transactionId, accountNumber, amount);
 
+        if (coalescing != null) {
+            return coalescing.validate(transactionId, accountNumber, amount, "DEPOSIT");
+        }
+
         return sendValidationRequest(
                 transactionId,
                 accountNumber,
@@ -82,6 +126,13 @@ public class KafkaAccountValidationProducer implements AccountValidationOutputPo
         );
     }
 
+    // ========== OUTBOX ==========
+
+    @Override
+    public Mono<AccountValidationResponse> awaitResponse(String transactionId, Mono<Void> publication) {
+        return outboxAwaiter.awaitResponse(transactionId, publication);
+    }
+
     // ========== PRIVATE HELPERS ==========
 
     /**
@@ -106,33 +157,40 @@ public class KafkaAccountValidationProducer implements AccountValidationOutputPo
             String transactionType,
             String targetAccountNumber) {
 
-        AccountValidationRequest.Builder requestBuilder = AccountValidationRequest.newBuilder()
-                .setTransactionId(transactionId)
-                .setAccountNumber(accountNumber)
-                .setTransactionType(transactionType)
-                .setAmount(amount.doubleValue());
-
-        // Agregar cuenta destino si es transferencia
-        if (targetAccountNumber != null) {
-            requestBuilder.setTargetAccountNumber(targetAccountNumber);
-        }
-
-        AccountValidationRequest request = requestBuilder.build();
-
-        return Mono.create(sink -> {
-            responseHandler.register(transactionId, sink);
-
-            kafkaTemplate.send(topicProperties.getAccountValidationRequest(), accountNumber, request)
-                    .whenComplete((result, ex) -> {
-                        if (ex != null) {
-                            log.error("❌ Error enviando mensaje a Kafka: transactionId={}, error={}",
-                                    transactionId, ex.getMessage(), ex);
-                            responseHandler.error(transactionId, ex);
-                        } else {
-                            log.info("✅ Solicitud enviada a Kafka: transactionId={}, type={}",
-                                    transactionId, transactionType);
-                        }
-                    });
+        ProducerRecord<String, AccountValidationRequest> record = recordFactory.create(
+                transactionId, accountNumber, amount, transactionType, targetAccountNumber);
+
+        String operation = transactionType.toLowerCase();
+
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            // Momento del ack de Kafka: inicio de la espera de respuesta de account-service
+            long[] sentAt = {start};
+
+            return Mono.<AccountValidationResponse>create(sink -> {
+                        responseHandler.register(transactionId, sink);
+
+                        kafkaTemplate.send(record)
+                                .whenComplete((result, ex) -> {
+                                    sentAt[0] = System.nanoTime();
+                                    if (ex != null) {
+                                        metrics.recordStage(TransactionMetrics.STAGE_KAFKA_SEND, operation,
+                                                TransactionMetrics.OUTCOME_ERROR, sentAt[0] - start);
+                                        log.error("❌ Error enviando mensaje a Kafka: transactionId={}, error={}",
+                                                transactionId, ex.getMessage(), ex);
+                                        responseHandler.error(transactionId, ex);
+                                    } else {
+                                        metrics.recordStage(TransactionMetrics.STAGE_KAFKA_SEND, operation,
+                                                TransactionMetrics.OUTCOME_SUCCESS, sentAt[0] - start);
+                                        log.info("✅ Solicitud enviada a Kafka: transactionId={}, type={}",
+                                                transactionId, transactionType);
+                                    }
+                                });
+                    })
+                    .doOnSuccess(response -> metrics.recordStage(TransactionMetrics.STAGE_REPLY_WAIT, operation,
+                            TransactionMetrics.OUTCOME_SUCCESS, System.nanoTime() - sentAt[0]))
+                    .doOnError(error -> metrics.recordStage(TransactionMetrics.STAGE_REPLY_WAIT, operation,
+                            TransactionMetrics.OUTCOME_ERROR, System.nanoTime() - sentAt[0]));
         });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,42 @@
+package com.nttdata.transaction_service.infrastructure.adapter;
+
+import com.ettdata.avro.AccountValidationResponse;
+import com.nttdata.transaction_service.infrastructure.handler.PendingResponseHandler;
+import com.nttdata.transaction_service.infrastructure.metrics.TransactionMetrics;
+import reactor.core.publisher.Mono;
+
+/**
+ * Espera de respuesta para solicitudes publicadas por el outbox, común a ambos productores
+ * (AccountValidationOutputPort.awaitResponse)
+ */
+final class OutboxResponseAwaiter {
+
+    private final PendingResponseHandler responseHandler;
+    private final TransactionMetrics metrics;
+
+    OutboxResponseAwaiter(PendingResponseHandler responseHandler, TransactionMetrics metrics) {
+        this.responseHandler = responseHandler;
+        this.metrics = metrics;
+    }
+
+    Mono<AccountValidationResponse> awaitResponse(String transactionId, Mono<Void> publication) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+
+            // La espera se registra antes de escribir: el relay puede publicar y recibir la
+            // respuesta antes de que termine la confirmación de la escritura
+            return Mono.<AccountValidationResponse>create(sink -> {
+                        responseHandler.register(transactionId, sink);
+                        publication.subscribe(
+                                null,
+                                error -> responseHandler.error(transactionId, error));
+                    })
+                    .doOnSuccess(response -> metrics.recordStage(TransactionMetrics.STAGE_REPLY_WAIT,
+                            TransactionMetrics.OPERATION_OUTBOX, TransactionMetrics.OUTCOME_SUCCESS,
+                            System.nanoTime() - start))
+                    .doOnError(error -> metrics.recordStage(TransactionMetrics.STAGE_REPLY_WAIT,
+                            TransactionMetrics.OPERATION_OUTBOX, TransactionMetrics.OUTCOME_ERROR,
+                            System.nanoTime() - start));
+        });
+    }
+}
@@ -0,0 +1,218 @@
+package com.nttdata.transaction_service.infrastructure.adapter;
+
+import com.ettdata.avro.AccountValidationRequest;
+import com.ettdata.avro.AccountValidationResponse;
+import com.nttdata.transaction_service.application.port.out.AccountValidationOutputPort;
+import com.nttdata.transaction_service.infrastructure.handler.PendingResponseHandler;
+import com.nttdata.transaction_service.infrastructure.metrics.TransactionMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderRecord;
+import reactor.kafka.sender.SenderResult;
+
+import java.math.BigDecimal;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AccountValidationOutputPort sobre reactor-kafka. Todas las solicitudes fluyen por un único
+ * KafkaSender.send con los envíos en vuelo acotados por maxInFlight. Las solicitudes esperan en
+ * una cola y solo se entregan al sender cuando este pide más: la contrapresión llega a la
+ * solicitud HTTP, que sigue pendiente (y cuenta para su deadline) sin bloquear el event loop.
+ * El tamaño de la cola lo acota el AdmissionLimiter.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "transaction.kafka.sender", havingValue = "reactive")
+public class ReactiveAccountValidationProducer implements AccountValidationOutputPort {
+
+    private final PendingResponseHandler responseHandler;
+    private final AccountValidationRecordFactory recordFactory;
+    private final TransactionMetrics metrics;
+    private final OutboxResponseAwaiter outboxAwaiter;
+
+    // Solicitudes a la espera de demanda del sender; drain() es el único que llama a next()
+    private final Queue<SenderRecord<String, AccountValidationRequest, InFlight>> pending =
+            new ConcurrentLinkedQueue<>();
+    private final AtomicInteger drainWip = new AtomicInteger();
+    private volatile FluxSink<SenderRecord<String, AccountValidationRequest, InFlight>> outbound;
+
+    public ReactiveAccountValidationProducer(KafkaSender<String, AccountValidationRequest> sender,
+                                             PendingResponseHandler responseHandler,
+                                             AccountValidationRecordFactory recordFactory,
+                                             TransactionMetrics metrics) {
+        this.responseHandler = responseHandler;
+        this.recordFactory = recordFactory;
+        this.metrics = metrics;
+        this.outboxAwaiter = new OutboxResponseAwaiter(responseHandler, metrics);
+
+        Flux<SenderRecord<String, AccountValidationRequest, InFlight>> records = Flux.create(sink -> {
+            outbound = sink;
+            sink.onRequest(requested -> drain());
+        });
+
+        sender.send(records)
+                .subscribe(
+                        this::onSendResult,
+                        error -> log.error("❌ Pipeline de envío a Kafka terminado: {}", error.getMessage(), error));
+    }
+
+    // ========== WITHDRAW ==========
+
+    @Override
+    public Mono<AccountValidationResponse> sendWithdrawRequest(
+            String transactionId,
+            String accountNumber,
+            BigDecimal amount) {
+
+        log.info("💰 Enviando solicitud de retiro: transactionId={}, account={}, amount={}",
+                transactionId, accountNumber, amount);
+
+        return sendValidationRequest(transactionId, accountNumber, amount, "WITHDRAWAL", null);
+    }
+
+    // ========== DEPOSIT ==========
+
+    @Override
+    public Mono<AccountValidationResponse> sendDepositRequest(
+            String transactionId,
+            String accountNumber,
+            BigDecimal amount) {
+
+        log.info("💵 Enviando solicitud de depósito: transactionId={}, account={}, amount={}",
+                transactionId, accountNumber, amount);
+
+        return sendValidationRequest(transactionId, accountNumber, amount, "DEPOSIT", null);
+    }
+
+    // ========== TRANSFER ==========
+
+    @Override
+    public Mono<AccountValidationResponse> sendTransferRequest(
+            String transactionId,
+            String sourceAccountNumber,
+            String targetAccountNumber,
+            BigDecimal amount) {
+
+        log.info("💸 Enviando solicitud de transferencia: transactionId={}, from={}, to={}, amount={}",
+                transactionId, sourceAccountNumber, targetAccountNumber, amount);
+
+        // Para transferencias, validamos la cuenta origen (débito)
+        return sendValidationRequest(transactionId, sourceAccountNumber, amount, "TRANSFER", targetAccountNumber);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        FluxSink<SenderRecord<String, AccountValidationRequest, InFlight>> sink = outbound;
+        if (sink != null) {
+            sink.complete();
+        }
+    }
+
+    // ========== OUTBOX ==========
+
+    @Override
+    public Mono<AccountValidationResponse> awaitResponse(String transactionId, Mono<Void> publication) {
+        return outboxAwaiter.awaitResponse(transactionId, publication);
+    }
+
+    // ========== PRIVATE HELPERS ==========
+
+    private Mono<AccountValidationResponse> sendValidationRequest(
+            String transactionId,
+            String accountNumber,
+            BigDecimal amount,
+            String transactionType,
+            String targetAccountNumber) {
+
+        String operation = transactionType.toLowerCase();
+
+        return Mono.defer(() -> {
+            InFlight inFlight = new InFlight(transactionId, operation, System.nanoTime());
+            SenderRecord<String, AccountValidationRequest, InFlight> record = SenderRecord.create(
+                    recordFactory.create(transactionId, accountNumber, amount, transactionType, targetAccountNumber),
+                    inFlight);
+
+            // Cancelada o vencida mientras esperaba turno: ya no se envía
+            return Mono.<AccountValidationResponse>create(sink -> {
+                        responseHandler.register(transactionId, sink);
+                        pending.offer(record);
+                        drain();
+                    })
+                    .doOnCancel(() -> pending.remove(record))
+                    .doOnError(error -> pending.remove(record))
+                    .doOnSuccess(response -> metrics.recordStage(TransactionMetrics.STAGE_REPLY_WAIT, operation,
+                            TransactionMetrics.OUTCOME_SUCCESS, System.nanoTime() - inFlight.sentAt))
+                    .doOnError(error -> metrics.recordStage(TransactionMetrics.STAGE_REPLY_WAIT, operation,
+                            TransactionMetrics.OUTCOME_ERROR, System.nanoTime() - inFlight.sentAt));
+        });
+    }
+
+    /**
+     * Entrega solicitudes mientras el sender tenga demanda. Sin spin: el hilo que encuentra el
+     * drenaje en curso solo lo marca y el que drena repite la pasada antes de salir
+     */
+    private void drain() {
+        if (drainWip.getAndIncrement() != 0) {
+            return;
+        }
+
+        int missed = 1;
+        do {
+            FluxSink<SenderRecord<String, AccountValidationRequest, InFlight>> sink = outbound;
+            if (sink != null) {
+                while (sink.requestedFromDownstream() > 0) {
+                    SenderRecord<String, AccountValidationRequest, InFlight> record = pending.poll();
+                    if (record == null) {
+                        break;
+                    }
+                    sink.next(record);
+                }
+            }
+            missed = drainWip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void onSendResult(SenderResult<InFlight> result) {
+        InFlight inFlight = result.correlationMetadata();
+        inFlight.sentAt = System.nanoTime();
+        long elapsed = inFlight.sentAt - inFlight.start;
+
+        if (result.exception() != null) {
+            metrics.recordStage(TransactionMetrics.STAGE_KAFKA_SEND, inFlight.operation,
+                    TransactionMetrics.OUTCOME_ERROR, elapsed);
+            log.error("❌ Error enviando mensaje a Kafka: transactionId={}, error={}",
+                    inFlight.transactionId, result.exception().getMessage(), result.exception());
+            responseHandler.error(inFlight.transactionId, result.exception());
+        } else {
+            metrics.recordStage(TransactionMetrics.STAGE_KAFKA_SEND, inFlight.operation,
+                    TransactionMetrics.OUTCOME_SUCCESS, elapsed);
+            log.debug("✅ Solicitud enviada a Kafka: transactionId={}, offset={}",
+                    inFlight.transactionId, result.recordMetadata().offset());
+        }
+    }
+
+    /**
+     * Metadatos de correlación de cada envío; sentAt marca el ack del broker
+     */
+    private static final class InFlight {
+        private final String transactionId;
+        private final String operation;
+        private final long start;
+        private volatile long sentAt;
+
+        private InFlight(String transactionId, String operation, long start) {
+            this.transactionId = transactionId;
+            this.operation = operation;
+            this.start = start;
+            this.sentAt = start;
+        }
+    }
+}
@@ -1,35 +1,313 @@
 package com.nttdata.transaction_service.infrastructure.adapter;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nttdata.transaction_service.application.port.out.AccountSummaryOutputPort;
 import com.nttdata.transaction_service.application.port.out.TransactionRepositoryOutputPort;
+import com.nttdata.transaction_service.domain.model.OutboxMessage;
 import com.nttdata.transaction_service.domain.model.Transaction;
+import com.nttdata.transaction_service.domain.model.enums.TransactionStatus;
 import com.nttdata.transaction_service.infrastructure.entity.TransactionEntity;
-import com.nttdata.transaction_service.infrastructure.repository.TransactionRepository;
-import com.nttdata.transaction_service.infrastructure.utils.TransactionMapper;
+import com.nttdata.transaction_service.infrastructure.handler.AccountEventBroadcaster;
+import com.nttdata.transaction_service.infrastructure.utils.TransactionIdGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+import static com.nttdata.transaction_service.infrastructure.utils.TransactionDocumentConverters.ACCOUNT_NUMBER;
+import static com.nttdata.transaction_service.infrastructure.utils.TransactionDocumentConverters.ID;
+import static com.nttdata.transaction_service.infrastructure.utils.TransactionDocumentConverters.STATUS;
+import static com.nttdata.transaction_service.infrastructure.utils.TransactionDocumentConverters.SUMMARY;
+import static com.nttdata.transaction_service.infrastructure.utils.TransactionDocumentConverters.SUMMARY_APPLIED;
+import static com.nttdata.transaction_service.infrastructure.utils.TransactionDocumentConverters.SUMMARY_APPLYING;
+import static com.nttdata.transaction_service.infrastructure.utils.TransactionDocumentConverters.SUMMARY_AT;
+import static com.nttdata.transaction_service.infrastructure.utils.TransactionDocumentConverters.SUMMARY_PENDING;
+import static com.nttdata.transaction_service.infrastructure.utils.TransactionDocumentConverters.TRANSACTION_DATE;
+
+@Slf4j
 @Component
 public class TransactionAdapter implements TransactionRepositoryOutputPort {
 
-  private final TransactionRepository repository;
-  private final TransactionMapper mapper;
+  private static final int SUMMARY_UPDATE_CONCURRENCY = 16;
+  private static final Sort HISTORY_SORT = Sort.by(Sort.Order.desc(TRANSACTION_DATE), Sort.Order.desc(ID));
+
+  private final ReactiveMongoTemplate mongoTemplate;
+  // Transaction se lee y escribe directamente (TransactionDocumentConverters), sin pasar por TransactionEntity
+  private final String collection;
+  private final AccountSummaryOutputPort accountSummary;
+  private final ValidationOutboxAdapter outbox;
+  private final AccountEventBroadcaster events;
+  private final TransactionIdGenerator idGenerator;
+  // Solo existe con transacciones Mongo activas (replica set): transferencias atómicas y outbox
+  private final ObjectProvider<TransactionalOperator> transactionalOperator;
+
+  // Historial por cuenta (W-TinyLFU, acotado por número total de transacciones cacheadas)
+  private final AsyncCache<String, List<Transaction>> historyCache;
 
-    public TransactionAdapter(TransactionRepository repository, TransactionMapper mapper) {
-        this.repository = repository;
-        this.mapper = mapper;
+  public TransactionAdapter(ReactiveMongoTemplate mongoTemplate,
+                            AccountSummaryOutputPort accountSummary,
+                            ValidationOutboxAdapter outbox,
+                            AccountEventBroadcaster events,
+                            TransactionIdGenerator idGenerator,
+                            ObjectProvider<TransactionalOperator> transactionalOperator,
+                            MeterRegistry meterRegistry,
+                            @Value("${transaction.cache.history.max-weight:200000}") long maxWeight,
+                            @Value("${transaction.cache.history.expire-after-write-seconds:300}") long ttlSeconds) {
+    this.mongoTemplate = mongoTemplate;
+    this.collection = mongoTemplate.getCollectionName(TransactionEntity.class);
+    this.accountSummary = accountSummary;
+    this.outbox = outbox;
+    this.events = events;
+    this.idGenerator = idGenerator;
+    this.transactionalOperator = transactionalOperator;
+    this.historyCache = Caffeine.newBuilder()
+            .maximumWeight(maxWeight)
+            .weigher((String accountNumber, List<Transaction> history) -> history.size() + 1)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .buildAsync();
+    CaffeineCacheMetrics.monitor(meterRegistry, historyCache.synchronous(), "transaction.history");
+    if (transactionalOperator.getIfAvailable() == null) {
+      log.warn("⚠️ Transacciones Mongo desactivadas: los tramos de una transferencia no se escriben atómicamente");
     }
+  }
 
-    @Override
+  @Override
   public Flux<Transaction> findAllTransactionByAccountNumber(String accountNumber) {
-    return repository.findAllTransactionByAccountNumber(accountNumber)
-            .map(mapper::toDomain);
+    // El future cacheado es compartido: la cancelación de un suscriptor no debe cancelarlo
+    return Mono.fromFuture(historyCache.get(accountNumber, (key, executor) ->
+                    mongoTemplate.find(historyQuery(key), Transaction.class, collection)
+                            .collectList()
+                            .toFuture()), true)
+            .flatMapIterable(Function.identity());
+  }
+
+  @Override
+  public Mono<Transaction> findTransactionById(String transactionId) {
+    return mongoTemplate.findOne(Query.query(Criteria.where(ID).is(transactionId)), Transaction.class, collection);
   }
 
   @Override
   public Mono<Transaction> saveTransaction(Transaction transaction) {
-    TransactionEntity entity = mapper.toEntity(transaction);
-    return repository.save(entity)
-            .map(mapper::toDomain);
+    return mongoTemplate.save(transaction, collection)
+            .doOnNext(saved -> {
+              invalidateHistory(saved.getAccountNumber());
+              events.publish(saved);
+            })
+            .flatMap(saved -> isSettled(saved)
+                    ? updateSummary(saved).thenReturn(saved)
+                    : Mono.just(saved));
+  }
+
+  @Override
+  public Flux<Transaction> saveAll(List<Transaction> transactions) {
+    if (transactions.isEmpty()) {
+      return Flux.empty();
+    }
+
+    return mongoTemplate.insert(transactions, collection)
+            .collectList()
+            .flatMapMany(saved -> afterInsert(saved).thenMany(Flux.fromIterable(saved)));
+  }
+
+  @Override
+  public Mono<Void> saveWithOutbox(List<Transaction> transactions, OutboxMessage message) {
+    TransactionalOperator operator = transactionalOperator.getIfAvailable();
+    if (operator == null) {
+      return Mono.error(new IllegalStateException("El outbox requiere transacciones Mongo (replica set)"));
+    }
+
+    // Transacciones y mensaje se confirman juntos; la caché y el resumen solo tras el commit
+    return mongoTemplate.insert(transactions, collection)
+            .then(outbox.insert(message))
+            .as(operator::transactional)
+            .then(Mono.defer(() -> afterInsert(transactions)));
+  }
+
+  @Override
+  public Mono<Boolean> expireOutbox(String transactionId) {
+    return outbox.expire(transactionId);
+  }
+
+  @Override
+  public Mono<Void> saveTransfer(Transaction debit, Transaction credit) {
+    List<Transaction> legs = List.of(debit, credit);
+    Mono<Void> insert = mongoTemplate.insert(legs, collection).then();
+    TransactionalOperator operator = transactionalOperator.getIfAvailable();
+
+    // Con replica set, un único insertMany en una transacción: se confirman los dos tramos o
+    // ninguno. En un Mongo standalone el insertMany ordenado puede dejar escrito solo el débito:
+    // se marca REJECTED (no cuenta en el resumen) y, si tampoco eso se logra, queda PENDING hasta
+    // que StalePendingTransactionSweepJob lo resuelve
+    Mono<Void> persisted = operator != null
+            ? insert.as(operator::transactional)
+            : insert.onErrorResume(error -> updateStatus(legs, TransactionStatus.REJECTED)
+                    .onErrorResume(rejectError -> {
+                      log.error("❌ Error rechazando tramos de transferencia {}: {}",
+                              debit.getTransactionId(), rejectError.getMessage());
+                      return Mono.empty();
+                    })
+                    .then(Mono.error(error)));
+
+    return persisted
+            .doOnSuccess(unused -> legs.forEach(leg -> {
+              invalidateHistory(leg.getAccountNumber());
+              events.publish(leg);
+            }));
+  }
+
+  @Override
+  public Mono<Void> updateStatus(List<Transaction> transactions, TransactionStatus status) {
+    if (transactions.isEmpty()) {
+      return Mono.empty();
+    }
+
+    List<String> ids = transactions.stream().map(Transaction::getTransactionId).toList();
+
+    // Solo transiciona desde PENDING. statusBatchId se fija al ensamblar: los reintentos
+    // (resuscripciones) lo comparten y encuentran lo que ya cambió un intento anterior
+    String statusBatchId = idGenerator.nextId();
+    Query pending = Query.query(Criteria.where(ID).in(ids)
+            .and(STATUS).is(TransactionStatus.PENDING.name()));
+    Update update = Update.update(STATUS, status.name())
+            .set("statusBatchId", statusBatchId);
+
+    return mongoTemplate.updateMulti(pending, update, TransactionEntity.class)
+            .flatMap(result -> {
+              transactions.stream()
+                      .map(Transaction::getAccountNumber)
+                      .distinct()
+                      .forEach(this::invalidateHistory);
+
+              // Si no cambiaron todas (otro lote se adelantó, o un intento anterior cuya respuesta se
+              // perdió ya las cambió) se releen las de este statusBatchId; el resumen se aplica una
+              // sola vez por transacción (updateSummary), así que repetirlo en un reintento es inocuo
+              Flux<Transaction> transitioned = result.getModifiedCount() == transactions.size()
+                      ? Flux.fromIterable(transactions)
+                              .map(transaction -> transaction.toBuilder().status(status).build())
+                      : mongoTemplate.find(Query.query(Criteria.where(ID).in(ids)
+                                      .and("statusBatchId").is(statusBatchId)), Transaction.class, collection);
+
+              return transitioned
+                      .doOnNext(events::publish)
+                      .filter(transaction -> status == TransactionStatus.COMPLETED)
+                      .flatMap(this::updateSummary, SUMMARY_UPDATE_CONCURRENCY)
+                      .then();
+            });
+  }
+
+  @Override
+  public Flux<Transaction> findPendingBefore(LocalDateTime before) {
+    return mongoTemplate.find(Query.query(Criteria.where(STATUS).is(TransactionStatus.PENDING.name())
+            .and(TRANSACTION_DATE).lt(before)), Transaction.class, collection);
+  }
+
+  @Override
+  public Flux<Transaction> streamTransactionsByAccountNumber(String accountNumber) {
+    return mongoTemplate.find(historyQuery(accountNumber), Transaction.class, collection);
+  }
+
+  @Override
+  public Flux<Transaction> findTransactionPage(String accountNumber,
+                                               TransactionStatus status,
+                                               LocalDateTime afterTransactionDate,
+                                               String afterTransactionId,
+                                               int size) {
+    Criteria criteria = Criteria.where(ACCOUNT_NUMBER).is(accountNumber);
+    if (status != null) {
+      criteria.and(STATUS).is(status.name());
+    }
+    // Página siguiente al cursor (transactionDate, transactionId) en orden descendente
+    if (afterTransactionDate != null) {
+      criteria.orOperator(
+              Criteria.where(TRANSACTION_DATE).lt(afterTransactionDate),
+              Criteria.where(TRANSACTION_DATE).is(afterTransactionDate).and(ID).lt(afterTransactionId));
+    }
+
+    return mongoTemplate.find(Query.query(criteria).with(HISTORY_SORT).limit(size), Transaction.class, collection);
+  }
+
+  /**
+   * Historial completo de la cuenta, más reciente primero (resuelto por account_date_id_idx)
+   */
+  private Query historyQuery(String accountNumber) {
+    return Query.query(Criteria.where(ACCOUNT_NUMBER).is(accountNumber)).with(HISTORY_SORT);
+  }
+
+  /**
+   * Invalida el historial cacheado una vez confirmada la escritura. Una carga en curso
+   * iniciada antes de la escritura se descarta junto con su future, por lo que no puede
+   * volver a poblar la caché con datos previos a la escritura.
+   */
+  private void invalidateHistory(String accountNumber) {
+    historyCache.synchronous().invalidate(accountNumber);
+  }
+
+  /**
+   * Invalida el historial de las cuentas afectadas, difunde las transacciones y aplica al resumen
+   * las liquidadas
+   */
+  private Mono<Void> afterInsert(List<Transaction> saved) {
+    saved.stream()
+            .map(Transaction::getAccountNumber)
+            .distinct()
+            .forEach(this::invalidateHistory);
+    saved.forEach(events::publish);
+    // Los $inc de distintas transacciones de una misma cuenta conmutan
+    return Flux.fromIterable(saved)
+            .filter(this::isSettled)
+            .flatMap(this::updateSummary, SUMMARY_UPDATE_CONCURRENCY)
+            .then();
+  }
+
+  /**
+   * Las transacciones sin estado (anteriores al ciclo de vida) o COMPLETED cuentan en el resumen
+   */
+  private boolean isSettled(Transaction transaction) {
+    return transaction.getStatus() == null || transaction.getStatus() == TransactionStatus.COMPLETED;
+  }
+
+  /**
+   * Aplica la transacción al resumen de la cuenta una sola vez: el documento pasa a APPLYING antes
+   * del $inc y a APPLIED después, así un reintento no la vuelve a sumar y la reconstrucción sabe
+   * qué aportes ya están en el resumen. Un fallo aquí no revierte la transacción (la
+   * reconstrucción resuelve los APPLYING que queden)
+   */
+  private Mono<Void> updateSummary(Transaction saved) {
+    Query unapplied = Query.query(Criteria.where(ID).is(saved.getTransactionId())
+            .and(SUMMARY).is(SUMMARY_PENDING));
+
+    return mongoTemplate.updateFirst(unapplied,
+                    Update.update(SUMMARY, SUMMARY_APPLYING).set(SUMMARY_AT, Instant.now()),
+                    TransactionEntity.class)
+            .filter(claim -> claim.getModifiedCount() > 0)
+            .flatMap(claim -> accountSummary.applyTransaction(saved)
+                    .then(mongoTemplate.updateFirst(
+                            Query.query(Criteria.where(ID).is(saved.getTransactionId())),
+                            Update.update(SUMMARY, SUMMARY_APPLIED).unset(SUMMARY_AT),
+                            TransactionEntity.class)))
+            .then()
+            .onErrorResume(error -> {
+              log.error("❌ Error actualizando resumen de cuenta {}: {}",
+                      saved.getAccountNumber(), error.getMessage());
+              return Mono.empty();
+            });
   }
 }
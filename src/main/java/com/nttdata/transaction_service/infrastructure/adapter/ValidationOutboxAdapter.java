@@ -0,0 +1,141 @@
+package com.nttdata.transaction_service.infrastructure.adapter;
+
+import com.nttdata.transaction_service.domain.model.OutboxMessage;
+import com.nttdata.transaction_service.infrastructure.config.ReplyRoutingProperties;
+import com.nttdata.transaction_service.infrastructure.entity.ValidationOutboxEntity;
+import com.nttdata.transaction_service.infrastructure.utils.TransactionIdGenerator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Acceso a validation_outbox: escritura dentro de la transacción de negocio, reclamo de
+ * lotes con lease y marca de publicados (checkpoint del relay)
+ */
+@Component
+@RequiredArgsConstructor
+public class ValidationOutboxAdapter {
+
+  private final ReactiveMongoTemplate mongoTemplate;
+  private final ReplyRoutingProperties replyRouting;
+  private final TransactionIdGenerator idGenerator;
+
+  // ========== WRITE ==========
+
+  /**
+   * Inserta el mensaje; dentro de un TransactionalOperator participa en la transacción en curso
+   */
+  public Mono<Void> insert(OutboxMessage message) {
+    return Mono.fromSupplier(() -> ValidationOutboxEntity.builder()
+                    .transactionId(message.getTransactionId())
+                    .accountNumber(message.getAccountNumber())
+                    .targetAccountNumber(message.getTargetAccountNumber())
+                    .transactionType(message.getTransactionType().name())
+                    .amount(message.getAmount())
+                    .replyInstanceId(replyRouting.getInstanceId())
+                    .published(false)
+                    .createdAt(Instant.now())
+                    .build())
+            .flatMap(mongoTemplate::insert)
+            .then();
+  }
+
+  // ========== RELAY ==========
+
+  /**
+   * Reclama hasta batchSize mensajes no publicados (por orden de creación) cuyo lease no esté
+   * vigente. Dos relays concurrentes no reclaman el mismo mensaje: el updateMulti vuelve a
+   * comprobar el lease y solo se devuelven los documentos marcados con el token de este lote.
+   */
+  public Flux<ValidationOutboxEntity> claimBatch(int batchSize, Duration lease) {
+    return Flux.defer(() -> {
+      Instant now = Instant.now();
+      String claimToken = idGenerator.nextId();
+
+      Query candidates = Query.query(claimable(now))
+              .with(Sort.by("createdAt"))
+              .limit(batchSize);
+      candidates.fields().include("_id");
+
+      return mongoTemplate.find(candidates, ValidationOutboxEntity.class)
+              .map(ValidationOutboxEntity::getTransactionId)
+              .collectList()
+              .flatMapMany(ids -> ids.isEmpty()
+                      ? Flux.empty()
+                      : mongoTemplate.updateMulti(
+                                      Query.query(new Criteria().andOperator(
+                                              Criteria.where("_id").in(ids), claimable(now))),
+                                      Update.update("claimToken", claimToken)
+                                              .set("leaseUntil", now.plus(lease)),
+                                      ValidationOutboxEntity.class)
+                              .thenMany(mongoTemplate.find(
+                                      Query.query(Criteria.where("_id").in(ids)
+                                                      .and("claimToken").is(claimToken))
+                                              .with(Sort.by("createdAt")),
+                                      ValidationOutboxEntity.class)));
+    });
+  }
+
+  /**
+   * Checkpoint del relay: los mensajes confirmados por Kafka no vuelven a reclamarse. Solo
+   * marca los que siguen reclamados por este lote (claimToken)
+   */
+  public Mono<Void> markPublished(String claimToken, List<String> transactionIds) {
+    if (transactionIds.isEmpty()) {
+      return Mono.empty();
+    }
+
+    return mongoTemplate.updateMulti(
+                    Query.query(Criteria.where("_id").in(transactionIds).and("claimToken").is(claimToken)),
+                    Update.update("published", true)
+                            .set("publishedAt", Instant.now())
+                            .unset("claimToken")
+                            .unset("leaseUntil"),
+                    ValidationOutboxEntity.class)
+            .then();
+  }
+
+  /**
+   * Descarta un mensaje cuya espera venció (la transacción quedó TIMED_OUT). Sin lease vigente
+   * se marca publicado sin enviarse y el TTL lo elimina. Si un relay lo tiene reclamado su envío
+   * puede estar en curso: solo se marca expired para que no vuelva a reclamarse si ese envío
+   * falla. Devuelve true únicamente si es seguro que no se publicará.
+   */
+  public Mono<Boolean> expire(String transactionId) {
+    Instant now = Instant.now();
+    return mongoTemplate.updateFirst(
+                    Query.query(new Criteria().andOperator(
+                            Criteria.where("_id").is(transactionId), claimable(now))),
+                    Update.update("published", true)
+                            .set("expired", true)
+                            .set("publishedAt", now)
+                            .unset("claimToken")
+                            .unset("leaseUntil"),
+                    ValidationOutboxEntity.class)
+            .flatMap(result -> result.getModifiedCount() > 0
+                    ? Mono.just(true)
+                    : mongoTemplate.updateFirst(
+                                    Query.query(Criteria.where("_id").is(transactionId).and("published").is(false)),
+                                    Update.update("expired", true),
+                                    ValidationOutboxEntity.class)
+                            .thenReturn(false));
+  }
+
+  private Criteria claimable(Instant now) {
+    return Criteria.where("published").is(false)
+            .and("expired").ne(true)
+            .orOperator(
+                    Criteria.where("leaseUntil").is(null),
+                    Criteria.where("leaseUntil").lt(now));
+  }
+}
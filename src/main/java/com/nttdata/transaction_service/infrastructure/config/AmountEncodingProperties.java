@@ -0,0 +1,29 @@
+package com.nttdata.transaction_service.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Codificación del monto en AccountValidationRequest (schema v2: unidades mínimas exactas)
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "transaction.kafka.amount-encoding")
+public class AmountEncodingProperties {
+
+    /**
+     * Escala fija de las unidades mínimas (2 decimales, la misma que exige TransactionValidator)
+     */
+    public static final int MINOR_UNIT_SCALE = 2;
+
+    /**
+     * Rellenar también el campo double legado mientras account-service siga leyendo el schema v1
+     */
+    private boolean legacyDouble = true;
+
+    /**
+     * Verificar al arrancar contra el schema registry que el schema local es compatible con el registrado
+     */
+    private boolean registryCheck = true;
+}
@@ -0,0 +1,77 @@
+package com.nttdata.transaction_service.infrastructure.config;
+
+import com.ettdata.avro.AccountValidationRequest;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Comprueba al arrancar que el schema local de AccountValidationRequest es compatible con la
+ * versión registrada (según el nivel de compatibilidad del subject) antes de que el primer
+ * envío intente registrarlo. Solo advierte: el productor sigue funcionando con auto.register.
+ */
+@Slf4j
+@Component
+public class AvroSchemaCompatibilityCheck {
+
+  private static final int SUBJECT_NOT_FOUND = 40401;
+
+  private final KafkaTopicProperties topicProperties;
+  private final AmountEncodingProperties amountEncoding;
+  private final String registryUrl;
+
+  public AvroSchemaCompatibilityCheck(
+          KafkaTopicProperties topicProperties,
+          AmountEncodingProperties amountEncoding,
+          @Value("${spring.kafka.producer.properties.schema.registry.url}") String registryUrl) {
+    this.topicProperties = topicProperties;
+    this.amountEncoding = amountEncoding;
+    this.registryUrl = registryUrl;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void checkRequestSchema() {
+    if (!amountEncoding.isRegistryCheck()) {
+      return;
+    }
+    // TopicNameStrategy por defecto del serializer
+    String subject = topicProperties.getAccountValidationRequest() + "-value";
+
+    Mono.fromCallable(() -> isCompatible(subject))
+            .subscribeOn(Schedulers.boundedElastic())
+            .subscribe(
+                    compatible -> {
+                      if (compatible) {
+                        log.info("✅ Schema de {} compatible con la versión registrada", subject);
+                      } else {
+                        log.warn("⚠️ Schema local de {} INCOMPATIBLE con el registry: el registro fallará al enviar",
+                                subject);
+                      }
+                    },
+                    error -> log.warn("⚠️ No se pudo verificar el schema de {} en {}: {}",
+                            subject, registryUrl, error.getMessage()));
+  }
+
+  private boolean isCompatible(String subject) throws Exception {
+    SchemaRegistryClient client = new CachedSchemaRegistryClient(registryUrl, 4);
+    try {
+      return client.testCompatibility(subject, new AvroSchema(AccountValidationRequest.getClassSchema()));
+    } catch (RestClientException e) {
+      if (e.getErrorCode() == SUBJECT_NOT_FOUND) {
+        log.info("🆕 Subject {} aún no registrado: se registrará con el primer envío", subject);
+        return true;
+      }
+      throw e;
+    } finally {
+      client.close();
+    }
+  }
+}
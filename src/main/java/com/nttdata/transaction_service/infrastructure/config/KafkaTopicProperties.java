@@ -10,4 +10,7 @@ import org.springframework.context.annotation.Configuration;
 public class KafkaTopicProperties {
     private String accountValidationRequest;
     private String accountValidationResponse;
+    // Lotes de la ventana de coalescencia (transaction.kafka.coalescing.enabled)
+    private String accountValidationBatchRequest;
+    private String accountValidationBatchResponse;
 }
@@ -0,0 +1,18 @@
+package com.nttdata.transaction_service.infrastructure.config;
+
+import com.nttdata.transaction_service.infrastructure.utils.TransactionDocumentConverters;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+/**
+ * Registra los conversores directos de Transaction (sustituye a las conversiones vacías por defecto)
+ */
+@Configuration
+public class MongoConversionConfig {
+
+  @Bean
+  public MongoCustomConversions mongoCustomConversions() {
+    return new MongoCustomConversions(TransactionDocumentConverters.converters());
+  }
+}
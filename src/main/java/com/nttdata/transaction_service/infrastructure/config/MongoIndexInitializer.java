@@ -0,0 +1,137 @@
+package com.nttdata.transaction_service.infrastructure.config;
+
+import com.nttdata.transaction_service.domain.model.enums.TransactionStatus;
+import com.nttdata.transaction_service.infrastructure.entity.IdempotencyEntity;
+import com.nttdata.transaction_service.infrastructure.entity.TransactionEntity;
+import com.nttdata.transaction_service.infrastructure.entity.ValidationOutboxEntity;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Crea al arrancar los índices declarados en las entidades y verifica con explain
+ * que las consultas de historial se resuelven por índice (sin COLLSCAN ni SORT en memoria).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MongoIndexInitializer {
+
+  private static final String PROBE_ACCOUNT = "__index_probe__";
+
+  private final ReactiveMongoTemplate mongoTemplate;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void initIndexes() {
+    ensureIndexes(TransactionEntity.class)
+            .then(ensureIndexes(IdempotencyEntity.class))
+            // También crea la colección: dentro de una transacción no siempre puede crearse implícitamente
+            .then(ensureIndexes(ValidationOutboxEntity.class))
+            .then(verifyHistoryPlans())
+            .subscribe(
+                    null,
+                    error -> log.error("❌ Error creando/verificando índices: {}", error.getMessage(), error));
+  }
+
+  // ========== INDEX CREATION ==========
+
+  /**
+   * Crea (si no existen) los índices anotados en la entidad
+   */
+  public Mono<Void> ensureIndexes(Class<?> entityClass) {
+    ReactiveIndexOperations indexOps = mongoTemplate.indexOps(entityClass);
+    MongoPersistentEntityIndexResolver resolver =
+            new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+
+    Iterable<? extends IndexDefinition> indexes = resolver.resolveIndexFor(entityClass);
+
+    return Flux.fromIterable(indexes)
+            .flatMap(indexOps::ensureIndex)
+            .doOnNext(name -> log.info("🗂️ Índice asegurado: {}.{}",
+                    mongoTemplate.getCollectionName(entityClass), name))
+            .then();
+  }
+
+  // ========== QUERY PLAN VERIFICATION ==========
+
+  /**
+   * Ejecuta explain sobre las consultas de historial y advierte si no usan el índice
+   */
+  public Mono<Void> verifyHistoryPlans() {
+    String collection = mongoTemplate.getCollectionName(TransactionEntity.class);
+    Document historySort = new Document("transactionDate", -1).append("_id", -1);
+
+    Document fullHistory = new Document("find", collection)
+            .append("filter", new Document("accountNumber", PROBE_ACCOUNT))
+            .append("sort", historySort);
+
+    Document keysetPage = new Document("find", collection)
+            .append("filter", new Document("accountNumber", PROBE_ACCOUNT)
+                    .append("$or", List.of(
+                            new Document("transactionDate", new Document("$lt", new Date())),
+                            new Document("transactionDate", new Date())
+                                    .append("_id", new Document("$lt", "~")))))
+            .append("sort", historySort)
+            .append("limit", 51);
+
+    Document statusPage = new Document("find", collection)
+            .append("filter", new Document("accountNumber", PROBE_ACCOUNT)
+                    .append("status", TransactionStatus.COMPLETED.name()))
+            .append("sort", historySort)
+            .append("limit", 51);
+
+    return Flux.just(fullHistory, keysetPage, statusPage)
+            .concatMap(query -> mongoTemplate.executeCommand(
+                            new Document("explain", query).append("verbosity", "queryPlanner"))
+                    .doOnNext(explain -> checkPlan(query, explain)))
+            .then();
+  }
+
+  private void checkPlan(Document query, Document explain) {
+    Document queryPlanner = explain.get("queryPlanner", Document.class);
+    Object winningPlan = queryPlanner != null ? queryPlanner.get("winningPlan") : null;
+
+    Set<String> stages = new HashSet<>();
+    collectStages(winningPlan, stages);
+
+    boolean usesIndex = stages.contains("IXSCAN");
+    boolean blockingSort = stages.contains("SORT") || stages.contains("COLLSCAN");
+
+    if (usesIndex && !blockingSort) {
+      log.info("✅ Plan de historial resuelto por índice: filtro={}, etapas={}",
+              query.get("filter"), stages);
+    } else {
+      log.warn("⚠️ Plan de historial NO cubierto por índice: filtro={}, etapas={}",
+              query.get("filter"), stages);
+    }
+  }
+
+  /**
+   * Recorre el plan (incluye planes SBE anidados en queryPlan) y recoge los nombres de etapa
+   */
+  private void collectStages(Object node, Set<String> stages) {
+    if (node instanceof Document document) {
+      Object stage = document.get("stage");
+      if (stage instanceof String name) {
+        stages.add(name);
+      }
+      document.values().forEach(value -> collectStages(value, stages));
+    } else if (node instanceof List<?> list) {
+      list.forEach(value -> collectStages(value, stages));
+    }
+  }
+}
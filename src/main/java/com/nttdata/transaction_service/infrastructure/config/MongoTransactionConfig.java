@@ -0,0 +1,30 @@
+package com.nttdata.transaction_service.infrastructure.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.ReactiveMongoTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * Transacciones multi-documento (requiere Mongo en replica set): los dos tramos de una
+ * transferencia y, con outbox, transacción y mensaje se confirman de forma atómica. Se activan
+ * con transaction.mongo.transactions.enabled=true; el outbox las activa siempre
+ */
+@Configuration
+@ConditionalOnExpression("${transaction.mongo.transactions.enabled:false} or ${transaction.outbox.enabled:false}")
+public class MongoTransactionConfig {
+
+    @Bean
+    public ReactiveMongoTransactionManager reactiveMongoTransactionManager(
+            ReactiveMongoDatabaseFactory databaseFactory) {
+        return new ReactiveMongoTransactionManager(databaseFactory);
+    }
+
+    @Bean
+    public TransactionalOperator mongoTransactionalOperator(
+            ReactiveMongoTransactionManager transactionManager) {
+        return TransactionalOperator.create(transactionManager);
+    }
+}
@@ -0,0 +1,28 @@
+package com.nttdata.transaction_service.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Outbox de solicitudes de validación (validation_outbox) y su relay hacia Kafka
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "transaction.outbox")
+public class OutboxProperties {
+
+    /**
+     * Requiere Mongo en replica set: transacción y mensaje se escriben en una transacción multi-documento
+     */
+    private boolean enabled = false;
+
+    private int batchSize = 500;
+
+    private long pollIntervalMillis = 50;
+
+    /**
+     * Tiempo que un lote reclamado queda reservado para el relay que lo reclamó
+     */
+    private long leaseSeconds = 30;
+}
@@ -0,0 +1,45 @@
+package com.nttdata.transaction_service.infrastructure.config;
+
+import com.ettdata.avro.AccountValidationRequest;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderOptions;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * KafkaSender de reactor-kafka para transaction.kafka.sender=reactive. Reutiliza
+ * spring.kafka.producer y ajusta batch, linger y compresión para throughput.
+ */
+@Configuration
+@ConditionalOnProperty(name = "transaction.kafka.sender", havingValue = "reactive")
+public class ReactiveKafkaSenderConfig {
+
+  @Bean(destroyMethod = "close")
+  public KafkaSender<String, AccountValidationRequest> accountValidationSender(
+          KafkaProperties kafkaProperties,
+          @Value("${transaction.kafka.reactive.max-in-flight:1024}") int maxInFlight,
+          @Value("${transaction.kafka.reactive.batch-size:65536}") int batchSize,
+          @Value("${transaction.kafka.reactive.linger-ms:5}") int lingerMs,
+          @Value("${transaction.kafka.reactive.compression-type:lz4}") String compressionType) {
+
+    Map<String, Object> props = new HashMap<>(kafkaProperties.buildProducerProperties(null));
+    props.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+    props.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+    props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+
+    // stopOnError=false: un envío fallido se notifica a su solicitud sin cortar el pipeline
+    SenderOptions<String, AccountValidationRequest> options =
+            SenderOptions.<String, AccountValidationRequest>create(props)
+                    .maxInFlight(maxInFlight)
+                    .stopOnError(false);
+
+    return KafkaSender.create(options);
+  }
+}
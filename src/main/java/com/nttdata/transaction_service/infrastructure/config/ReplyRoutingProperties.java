@@ -0,0 +1,39 @@
+package com.nttdata.transaction_service.infrastructure.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.UUID;
+
+/**
+ * Enrutamiento de respuestas de validación hacia la instancia que emitió la solicitud
+ */
+@Slf4j
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "transaction.reply")
+public class ReplyRoutingProperties {
+
+    /**
+     * Header con el id de la instancia que espera la respuesta (account-service lo devuelve tal cual)
+     */
+    public static final String REPLY_INSTANCE_HEADER = "x-reply-instance-id";
+
+    /**
+     * Id de la réplica: forma su group-id de respuestas. Sin configurar se genera uno en cada
+     * arranque, y la réplica pierde las respuestas que llegaron mientras reiniciaba
+     */
+    private String instanceId;
+
+    @PostConstruct
+    void validate() {
+        if (instanceId == null || instanceId.isBlank()) {
+            instanceId = "transaction-" + UUID.randomUUID();
+            log.warn("⚠️ transaction.reply.instance-id no configurado, se usa un id generado: {}. "
+                    + "Las respuestas que lleguen durante un reinicio se perderán", instanceId);
+        }
+    }
+}
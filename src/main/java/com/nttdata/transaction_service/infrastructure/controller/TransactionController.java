@@ -1,33 +1,85 @@
 package com.nttdata.transaction_service.infrastructure.controller;
 
 import com.nttdata.transaction_service.application.port.in.TransactionInputPort;
+import com.nttdata.transaction_service.domain.dto.BatchTransactionResponse;
 import com.nttdata.transaction_service.domain.dto.TransactionListResponse;
+import com.nttdata.transaction_service.domain.dto.TransactionPageResponse;
 import com.nttdata.transaction_service.domain.dto.TransactionResponse;
+import com.nttdata.transaction_service.domain.model.AccountSummary;
+import com.nttdata.transaction_service.domain.model.Transaction;
+import com.nttdata.transaction_service.domain.model.enums.TransactionStatus;
+import com.nttdata.transaction_service.infrastructure.dto.BatchTransactionRequest;
 import com.nttdata.transaction_service.infrastructure.dto.DepositRequest;
 import com.nttdata.transaction_service.infrastructure.dto.TransferRequest;
 import com.nttdata.transaction_service.infrastructure.dto.WithdrawalRequest;
+import com.nttdata.transaction_service.infrastructure.handler.AdmissionLimiter;
+import com.nttdata.transaction_service.infrastructure.handler.IdempotencyHandler;
+import com.nttdata.transaction_service.infrastructure.metrics.TransactionMetrics;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
 @RestController
 @RequestMapping("/api/transactions")
 public class TransactionController {
 
+  private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+  private static final int TOO_MANY_REQUESTS = 429;
+  private static final int ACCEPTED = 202;
+
+  // RFC 7240: con "Prefer: respond-async" la operación responde 202 al quedar persistida
+  private static final String PREFER_HEADER = "Prefer";
+  private static final String PREFERENCE_APPLIED_HEADER = "Preference-Applied";
+  private static final String RESPOND_ASYNC = "respond-async";
+  private static final String STATUS_PATH = "/api/transactions/status/";
+  private static final String TRANSACTION_EVENT = "transaction";
+
   private final TransactionInputPort transactionInputService;
+  private final IdempotencyHandler idempotencyHandler;
+  private final AdmissionLimiter admissionLimiter;
+  private final Duration eventsKeepAlive;
 
-  public TransactionController(TransactionInputPort transactionInputService) {
+  public TransactionController(TransactionInputPort transactionInputService,
+                               IdempotencyHandler idempotencyHandler,
+                               AdmissionLimiter admissionLimiter,
+                               @Value("${transaction.events.keep-alive-seconds:15}") long keepAliveSeconds) {
     this.transactionInputService = transactionInputService;
+    this.idempotencyHandler = idempotencyHandler;
+    this.admissionLimiter = admissionLimiter;
+    this.eventsKeepAlive = Duration.ofSeconds(keepAliveSeconds);
   }
 
   @PostMapping("/deposit")
-  Mono<TransactionResponse> deposit(@Valid @RequestBody DepositRequest depositRequest) {
-    return transactionInputService.deposit(depositRequest);
+  Mono<TransactionResponse> deposit(
+          @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+          @RequestHeader(value = PREFER_HEADER, required = false) String prefer,
+          @Valid @RequestBody DepositRequest depositRequest,
+          ServerHttpResponse httpResponse) {
+    boolean async = respondAsync(prefer);
+    return withHttpStatus(httpResponse,
+            idempotencyHandler.execute(TransactionMetrics.OPERATION_DEPOSIT, idempotencyKey, depositRequest,
+                    onPersisted -> async
+                            ? transactionInputService.depositAsync(depositRequest, onPersisted)
+                            : transactionInputService.deposit(depositRequest, onPersisted)));
   }
 
   @GetMapping("/{accountNumber}")
@@ -35,13 +87,112 @@ public class TransactionController {
     return transactionInputService.getAllTransactionsByAccountNumber(accountNumber);
   }
 
+  @GetMapping(value = "/{accountNumber}/stream",
+          produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+  Flux<Transaction> streamTransactionsByAccountNumber(@PathVariable String accountNumber) {
+    return transactionInputService.streamTransactionsByAccountNumber(accountNumber);
+  }
+
+  /**
+   * Eventos en vivo de la cuenta; el comentario keep-alive periódico detecta conexiones caídas
+   * para liberar su suscripción
+   */
+  @GetMapping(value = "/{accountNumber}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  Flux<ServerSentEvent<Transaction>> streamAccountEvents(@PathVariable String accountNumber) {
+    Flux<ServerSentEvent<Transaction>> events = transactionInputService.streamAccountEvents(accountNumber)
+            .map(transaction -> ServerSentEvent.builder(transaction)
+                    .id(transaction.getTransactionId())
+                    .event(TRANSACTION_EVENT)
+                    .build());
+    Flux<ServerSentEvent<Transaction>> keepAlive = Flux.interval(eventsKeepAlive)
+            .map(tick -> ServerSentEvent.<Transaction>builder().comment("keep-alive").build());
+
+    return Flux.merge(events, keepAlive);
+  }
+
+  @GetMapping("/{accountNumber}/page")
+  Mono<TransactionPageResponse> getTransactionPage(
+          @PathVariable String accountNumber,
+          @RequestParam(required = false) TransactionStatus status,
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterTransactionDate,
+          @RequestParam(required = false) String afterTransactionId,
+          @RequestParam(defaultValue = "50") int size) {
+    return transactionInputService.getTransactionPage(
+            accountNumber, status, afterTransactionDate, afterTransactionId, size);
+  }
+
+  @GetMapping("/{accountNumber}/summary")
+  Mono<AccountSummary> getAccountSummary(@PathVariable String accountNumber) {
+    return transactionInputService.getAccountSummary(accountNumber);
+  }
+
   @PostMapping("/transfer")
-  Mono<TransactionResponse> transfer(@Valid  @RequestBody TransferRequest transferRequest) {
-    return transactionInputService.transfer(transferRequest);
+  Mono<TransactionResponse> transfer(
+          @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+          @RequestHeader(value = PREFER_HEADER, required = false) String prefer,
+          @Valid  @RequestBody TransferRequest transferRequest,
+          ServerHttpResponse httpResponse) {
+    boolean async = respondAsync(prefer);
+    return withHttpStatus(httpResponse,
+            idempotencyHandler.execute(TransactionMetrics.OPERATION_TRANSFER, idempotencyKey, transferRequest,
+                    onPersisted -> async
+                            ? transactionInputService.transferAsync(transferRequest, onPersisted)
+                            : transactionInputService.transfer(transferRequest, onPersisted)));
   }
 
   @PostMapping("/withdraw")
-  Mono<TransactionResponse> withdraw(@Valid  @RequestBody WithdrawalRequest withdrawalRequest) {
-    return transactionInputService.withdraw(withdrawalRequest);
+  Mono<TransactionResponse> withdraw(
+          @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+          @RequestHeader(value = PREFER_HEADER, required = false) String prefer,
+          @Valid  @RequestBody WithdrawalRequest withdrawalRequest,
+          ServerHttpResponse httpResponse) {
+    boolean async = respondAsync(prefer);
+    return withHttpStatus(httpResponse,
+            idempotencyHandler.execute(TransactionMetrics.OPERATION_WITHDRAWAL, idempotencyKey, withdrawalRequest,
+                    onPersisted -> async
+                            ? transactionInputService.withdrawAsync(withdrawalRequest, onPersisted)
+                            : transactionInputService.withdraw(withdrawalRequest, onPersisted)));
+  }
+
+  @GetMapping("/status/{transactionId}")
+  Mono<TransactionResponse> getTransactionStatus(@PathVariable String transactionId) {
+    return transactionInputService.getTransactionStatus(transactionId);
+  }
+
+  @GetMapping(value = "/status/{transactionId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  Flux<TransactionResponse> streamTransactionStatus(@PathVariable String transactionId) {
+    return transactionInputService.streamTransactionStatus(transactionId);
+  }
+
+  /**
+   * Un rechazo por admisión se devuelve como 429 con Retry-After para que el cliente espere;
+   * una operación aceptada en modo asíncrono como 202 con Location hacia su estado
+   */
+  private Mono<TransactionResponse> withHttpStatus(ServerHttpResponse httpResponse,
+                                                   Mono<TransactionResponse> result) {
+    return result.doOnNext(response -> {
+      if (response.getCodResponse() == null) {
+        return;
+      }
+      if (response.getCodResponse() == TOO_MANY_REQUESTS) {
+        httpResponse.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        httpResponse.getHeaders().set(HttpHeaders.RETRY_AFTER,
+                String.valueOf(admissionLimiter.getRetryAfterSeconds()));
+      } else if (response.getCodResponse() == ACCEPTED) {
+        httpResponse.setStatusCode(HttpStatus.ACCEPTED);
+        httpResponse.getHeaders().set(PREFERENCE_APPLIED_HEADER, RESPOND_ASYNC);
+        httpResponse.getHeaders().setLocation(URI.create(STATUS_PATH + response.getTransactionId()));
+      }
+    });
+  }
+
+  private boolean respondAsync(String prefer) {
+    return prefer != null && prefer.toLowerCase().contains(RESPOND_ASYNC);
+  }
+
+  @PostMapping("/batch")
+  Mono<BatchTransactionResponse> batch(@Valid @RequestBody BatchTransactionRequest batchRequest) {
+    return transactionInputService.processBatch(batchRequest);
   }
 }
@@ -0,0 +1,25 @@
+package com.nttdata.transaction_service.infrastructure.dto;
+
+import com.nttdata.transaction_service.domain.model.enums.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+
+/**
+ * Elemento de un lote: DEPOSIT y WITHDRAWAL usan numberAccount,
+ * TRANSFER usa sourceNumberAccount y targetNumberAccount
+ */
+@Data
+@AllArgsConstructor
+@Builder
+@NoArgsConstructor
+public class BatchTransactionItem {
+  private TransactionType transactionType;
+  private String numberAccount;
+  private String sourceNumberAccount;
+  private String targetNumberAccount;
+  private BigDecimal amount;
+  private String description;
+}
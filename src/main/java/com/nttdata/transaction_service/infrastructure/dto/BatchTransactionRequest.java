@@ -0,0 +1,15 @@
+package com.nttdata.transaction_service.infrastructure.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@Builder
+@NoArgsConstructor
+public class BatchTransactionRequest {
+  private List<BatchTransactionItem> items;
+}
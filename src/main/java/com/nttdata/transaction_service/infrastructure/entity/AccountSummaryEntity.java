@@ -0,0 +1,39 @@
+package com.nttdata.transaction_service.infrastructure.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Vista materializada por cuenta, mantenida con $inc en cada transacción persistida.
+ * Los montos se guardan como Decimal128 para poder incrementarlos en el servidor.
+ */
+@Data
+@Document(collection = "account_summary")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountSummaryEntity {
+  @Id
+  private String accountNumber;
+
+  @Field(targetType = FieldType.DECIMAL128)
+  private BigDecimal balance;
+
+  private long transactionCount;
+  private LocalDateTime lastTransactionDate;
+
+  // Totales por TransactionType (clave = nombre del enum)
+  private Map<String, BigDecimal> totals;
+
+  // Se incrementa en cada escritura; la reconstrucción solo reemplaza la revisión que leyó
+  private Long revision;
+}
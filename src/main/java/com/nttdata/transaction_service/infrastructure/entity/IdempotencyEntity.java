@@ -0,0 +1,36 @@
+package com.nttdata.transaction_service.infrastructure.entity;
+
+import com.nttdata.transaction_service.domain.dto.TransactionResponse;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.Instant;
+
+/**
+ * Reserva de un Idempotency-Key: se inserta PENDING (sin response) antes de ejecutar la operación
+ * y guarda la respuesta definitiva al terminar; Mongo la elimina por TTL a las 24 horas. Si vence
+ * reservedUntil sin transacción ligada, otra solicitud puede retomar la reserva
+ */
+@Data
+@Document(collection = "idempotency_keys")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyEntity {
+  public static final String EXPIRY_INDEX = "idempotency_expiry_idx";
+
+  @Id
+  private String key;                 // operación + ":" + Idempotency-Key
+
+  private String requestHash;         // SHA-256 del cuerpo de la solicitud
+  private String transactionId;       // transacción persistida por la operación
+  private TransactionResponse response;
+  private Instant reservedUntil;      // lease de la reserva mientras no haya transacción ligada
+
+  @Indexed(name = EXPIRY_INDEX, expireAfterSeconds = 86400)
+  private Instant createdAt;
+}
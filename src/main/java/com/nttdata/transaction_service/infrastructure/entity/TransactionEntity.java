@@ -1,26 +1,50 @@
 package com.nttdata.transaction_service.infrastructure.entity;
 
+import com.nttdata.transaction_service.domain.model.enums.TransactionStatus;
 import com.nttdata.transaction_service.domain.model.enums.TransactionType;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDateTime;
 
+/**
+ * Esquema e índices de la colección de transacciones. El adaptador lee y escribe Transaction
+ * directamente (TransactionDocumentConverters) con este mismo formato.
+ */
 @Data
 @Document(collection = "transactions")
+@CompoundIndexes({
+        @CompoundIndex(name = TransactionEntity.HISTORY_INDEX,
+                def = "{'accountNumber': 1, 'transactionDate': -1, '_id': -1}"),
+        @CompoundIndex(name = TransactionEntity.STATUS_HISTORY_INDEX,
+                def = "{'accountNumber': 1, 'status': 1, 'transactionDate': -1, '_id': -1}")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class TransactionEntity {
+  public static final String HISTORY_INDEX = "account_date_id_idx";
+  public static final String STATUS_HISTORY_INDEX = "account_status_date_id_idx";
+
   @Id
   private String transactionId;
   private String accountNumber;
   private LocalDateTime transactionDate;
   private TransactionType transactionType;
+  @Field(targetType = FieldType.DECIMAL128)
   private BigDecimal amount;
   private String description;
+  private TransactionStatus status;
+  private String statusBatchId;       // updateMulti que aplicó el último cambio de estado
+  private String summary;             // aporte al resumen: PENDING, APPLYING o APPLIED (ausente = legada)
+  private Instant summaryAt;          // inicio del $inc en curso (APPLYING)
 }
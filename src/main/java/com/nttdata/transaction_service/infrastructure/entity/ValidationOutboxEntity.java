@@ -0,0 +1,47 @@
+package com.nttdata.transaction_service.infrastructure.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Solicitud de validación escrita en la misma transacción Mongo que la transacción;
+ * el relay la publica en Kafka y Mongo la elimina por TTL 24 horas después de publicada
+ */
+@Data
+@Document(collection = "validation_outbox")
+@CompoundIndex(name = ValidationOutboxEntity.PENDING_INDEX, def = "{'published': 1, 'createdAt': 1}")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ValidationOutboxEntity {
+  public static final String PENDING_INDEX = "outbox_pending_idx";
+  public static final String EXPIRY_INDEX = "outbox_published_expiry_idx";
+
+  @Id
+  private String transactionId;
+  private String accountNumber;
+  private String targetAccountNumber;
+  private String transactionType;
+  @Field(targetType = FieldType.DECIMAL128)
+  private BigDecimal amount;
+  private String replyInstanceId;     // réplica que espera la respuesta
+  private boolean published;
+  private boolean expired;            // la espera venció antes de publicarse: no se publica
+  private Instant createdAt;
+
+  private String claimToken;          // lote del relay que reclamó el mensaje
+  private Instant leaseUntil;
+
+  @Indexed(name = EXPIRY_INDEX, expireAfterSeconds = 86400)
+  private Instant publishedAt;
+}
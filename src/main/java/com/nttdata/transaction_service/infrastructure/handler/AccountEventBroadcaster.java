@@ -0,0 +1,89 @@
+package com.nttdata.transaction_service.infrastructure.handler;
+
+import com.nttdata.transaction_service.domain.model.Transaction;
+import com.nttdata.transaction_service.infrastructure.utils.SinkEmission;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Difunde en vivo las transacciones guardadas y sus cambios de estado a los suscriptores de
+ * cada cuenta. Hay un sink multicast por cuenta con suscriptores, que se elimina al irse el
+ * último; cada suscriptor tiene su propio buffer acotado y, si no lo consume a tiempo,
+ * pierde los eventos más antiguos sin frenar al resto.
+ */
+@Slf4j
+@Component
+public class AccountEventBroadcaster {
+
+  private final ConcurrentMap<String, AccountChannel> channels = new ConcurrentHashMap<>();
+  private final int bufferSize;
+  private final Counter droppedEvents;
+
+  public AccountEventBroadcaster(MeterRegistry meterRegistry,
+                                 @Value("${transaction.events.buffer-size:256}") int bufferSize) {
+    this.bufferSize = bufferSize;
+    this.droppedEvents = Counter.builder("transaction.events.dropped")
+            .description("Eventos descartados por suscriptores lentos")
+            .register(meterRegistry);
+    Gauge.builder("transaction.events.channels", channels, ConcurrentMap::size)
+            .description("Cuentas con suscriptores de eventos")
+            .register(meterRegistry);
+  }
+
+  /**
+   * Eventos de la cuenta desde el momento de la suscripción (sin historial previo)
+   */
+  public Flux<Transaction> subscribe(String accountNumber) {
+    return Flux.defer(() -> {
+      AccountChannel channel = channels.compute(accountNumber, (key, existing) -> {
+        AccountChannel current = existing != null ? existing : new AccountChannel();
+        current.subscribers++;
+        return current;
+      });
+
+      return channel.sink.asFlux()
+              .onBackpressureBuffer(bufferSize, dropped -> droppedEvents.increment(),
+                      BufferOverflowStrategy.DROP_OLDEST)
+              .doFinally(signal -> channels.computeIfPresent(accountNumber,
+                      (key, current) -> --current.subscribers == 0 ? null : current));
+    });
+  }
+
+  /**
+   * Sin suscriptores para la cuenta no hace nada
+   */
+  public void publish(Transaction transaction) {
+    AccountChannel channel = channels.get(transaction.getAccountNumber());
+    if (channel == null) {
+      return;
+    }
+
+    Sinks.EmitResult result = SinkEmission.tryEmitNext(channel.sink, transaction);
+
+    if (result.isFailure() && result != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+      log.debug("⚠️ Evento no emitido: cuenta={}, resultado={}", transaction.getAccountNumber(), result);
+    }
+  }
+
+  public int getChannelCount() {
+    return channels.size();
+  }
+
+  /**
+   * subscribers solo se modifica dentro de compute/computeIfPresent del mapa
+   */
+  private static final class AccountChannel {
+    private final Sinks.Many<Transaction> sink = Sinks.many().multicast().directBestEffort();
+    private int subscribers;
+  }
+}
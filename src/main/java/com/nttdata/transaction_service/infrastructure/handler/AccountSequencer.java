@@ -0,0 +1,122 @@
+package com.nttdata.transaction_service.infrastructure.handler;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ordena las operaciones que debitan una misma cuenta: cada una espera a que termine la
+ * anterior de esa cuenta antes de validar con account-service, mientras que cuentas distintas
+ * siguen en paralelo. Sin locks: cada cuenta guarda solo el future de su última operación
+ * (intercambio atómico con put) y la nueva se encadena detrás del anterior. Las cuentas se
+ * reparten en stripes, cada uno con su mapa y su profundidad de cola expuesta como gauge.
+ */
+@Component
+public class AccountSequencer {
+
+    private final boolean enabled;
+    private final Stripe[] stripes;
+    private final int mask;
+
+    public AccountSequencer(MeterRegistry meterRegistry,
+                            @Value("${transaction.sequencer.enabled:true}") boolean enabled,
+                            @Value("${transaction.sequencer.stripes:16}") int stripeCount) {
+        this.enabled = enabled;
+        int size = stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = new Stripe[size];
+        this.mask = size - 1;
+
+        for (int i = 0; i < size; i++) {
+            Stripe stripe = new Stripe();
+            stripes[i] = stripe;
+            Gauge.builder("transaction.sequencer.queue.depth", stripe.depth, AtomicInteger::get)
+                    .description("Operaciones en curso o en espera por stripe de cuentas")
+                    .tag("stripe", String.valueOf(i))
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Ejecuta la operación cuando terminan las anteriores de la misma cuenta (en orden de llegada)
+     */
+    public <T> Mono<T> sequence(String accountNumber, Mono<T> operation) {
+        if (!enabled) {
+            return operation;
+        }
+
+        return Mono.defer(() -> {
+            Stripe stripe = stripeFor(accountNumber);
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            CompletableFuture<Void> previous = stripe.tails.put(accountNumber, done);
+            stripe.depth.incrementAndGet();
+
+            AtomicBoolean released = new AtomicBoolean();
+            Runnable release = () -> {
+                if (released.compareAndSet(false, true)) {
+                    stripe.depth.decrementAndGet();
+                    // Solo se elimina si nadie se encoló detrás
+                    stripe.tails.remove(accountNumber, done);
+                    done.complete(null);
+                }
+            };
+
+            // Con la anterior aún en curso se espera en otro hilo: una cadena de operaciones que
+            // terminan de forma síncrona no anida las continuaciones en la misma pila. Cancelar
+            // la espera no debe cancelar el future de la anterior (suppressCancel)
+            Mono<T> turn = previous == null || previous.isDone()
+                    ? operation
+                    : Mono.fromFuture(previous, true).publishOn(Schedulers.parallel()).then(operation);
+
+            return turn.doFinally(signal -> {
+                // Cancelada mientras esperaba: la siguiente sigue esperando a la anterior
+                if (previous != null && !previous.isDone()) {
+                    previous.whenComplete((unused, error) -> release.run());
+                } else {
+                    release.run();
+                }
+            });
+        });
+    }
+
+    /**
+     * Operaciones en curso o en espera en un stripe
+     */
+    public int getQueueDepth(int stripe) {
+        return stripes[stripe].depth.get();
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * Cuentas con alguna operación en curso (las que terminan se eliminan del mapa)
+     */
+    public int getActiveAccounts() {
+        int active = 0;
+        for (Stripe stripe : stripes) {
+            active += stripe.tails.size();
+        }
+        return active;
+    }
+
+    // ========== PRIVATE HELPERS ==========
+
+    private Stripe stripeFor(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    private static final class Stripe {
+        private final ConcurrentHashMap<String, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+        private final AtomicInteger depth = new AtomicInteger();
+    }
+}
@@ -0,0 +1,109 @@
+package com.nttdata.transaction_service.infrastructure.handler;
+
+import com.nttdata.transaction_service.domain.error.AccountValidationException;
+import com.nttdata.transaction_service.domain.error.CircuitOpenException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Circuit breaker sobre las validaciones con account-service. Cuenta como fallo los errores y
+ * timeouts de validación (AccountValidationException) y como lentas las llamadas que superan el
+ * umbral. Abierto, rechaza antes de guardar la transacción; tras la espera pasa a semiabierto y
+ * deja pasar unas pocas llamadas de prueba.
+ */
+@Slf4j
+@Component
+public class AccountValidationCircuitBreaker {
+
+    private static final String NAME = "account-service";
+
+    private final CircuitBreaker circuitBreaker;
+
+    public AccountValidationCircuitBreaker(
+            MeterRegistry meterRegistry,
+            @Value("${transaction.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${transaction.circuit-breaker.slow-call-rate-threshold:80}") float slowCallRateThreshold,
+            @Value("${transaction.circuit-breaker.slow-call-duration-millis:5000}") long slowCallDurationMillis,
+            @Value("${transaction.circuit-breaker.sliding-window-size:50}") int slidingWindowSize,
+            @Value("${transaction.circuit-breaker.minimum-number-of-calls:20}") int minimumNumberOfCalls,
+            @Value("${transaction.circuit-breaker.wait-duration-open-seconds:10}") long waitDurationOpenSeconds,
+            @Value("${transaction.circuit-breaker.permitted-calls-half-open:5}") int permittedCallsHalfOpen) {
+
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumNumberOfCalls)
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .slowCallDurationThreshold(Duration.ofMillis(slowCallDurationMillis))
+                .waitDurationInOpenState(Duration.ofSeconds(waitDurationOpenSeconds))
+                .permittedNumberOfCallsInHalfOpenState(permittedCallsHalfOpen)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .recordExceptions(AccountValidationException.class)
+                .build();
+
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        this.circuitBreaker = registry.circuitBreaker(NAME);
+        this.circuitBreaker.getEventPublisher()
+                .onStateTransition(event -> log.warn("🔌 Circuito {}: {}",
+                        NAME, event.getStateTransition()));
+
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+    }
+
+    /**
+     * Ejecuta la operación si el circuito lo permite; si está abierto falla de inmediato
+     * con CircuitOpenException, sin suscribirse a la operación
+     */
+    public <T> Mono<T> protect(Mono<T> source) {
+        return Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                return Mono.error(new CircuitOpenException("Servicio de cuentas no disponible (circuito abierto)"));
+            }
+
+            long start = System.nanoTime();
+            AtomicBoolean recorded = new AtomicBoolean();
+
+            return source
+                    .doOnSuccess(value -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            circuitBreaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        }
+                    })
+                    .doOnError(error -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            if (error instanceof AccountValidationException) {
+                                circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, error);
+                            } else {
+                                // Errores ajenos a account-service (persistencia, admisión) no cuentan
+                                circuitBreaker.releasePermission();
+                            }
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            circuitBreaker.releasePermission();
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Indica si el circuito admite llamadas (cerrado o semiabierto), sin consumir permiso
+     */
+    public boolean allowsCalls() {
+        CircuitBreaker.State state = circuitBreaker.getState();
+        return state != CircuitBreaker.State.OPEN && state != CircuitBreaker.State.FORCED_OPEN;
+    }
+}
@@ -0,0 +1,207 @@
+package com.nttdata.transaction_service.infrastructure.handler;
+
+import com.nttdata.transaction_service.domain.error.AccountValidationException;
+import com.nttdata.transaction_service.domain.error.AdmissionRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Límite adaptativo (AIMD) de operaciones en vuelo contra account-service. Crece en uno
+ * mientras las validaciones responden a tiempo con el límite en uso, y se reduce
+ * multiplicativamente ante timeouts o respuestas más lentas que el umbral. Superado el
+ * límite la operación se rechaza de inmediato en lugar de encolarse, salvo con
+ * admitWhenAvailable, que espera a que se libere capacidad.
+ */
+@Slf4j
+@Component
+public class AdmissionLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final long retryAfterSeconds;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    // Operaciones esperando capacidad (admitWhenAvailable); cada liberación despierta a una
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+    private final Counter rejected;
+
+    public AdmissionLimiter(MeterRegistry meterRegistry,
+                            @Value("${transaction.admission.initial-limit:64}") int initialLimit,
+                            @Value("${transaction.admission.min-limit:8}") int minLimit,
+                            @Value("${transaction.admission.max-limit:1024}") int maxLimit,
+                            @Value("${transaction.admission.backoff-ratio:0.9}") double backoffRatio,
+                            @Value("${transaction.admission.latency-threshold-millis:2000}") long latencyThresholdMillis,
+                            @Value("${transaction.admission.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+
+        Gauge.builder("transaction.admission.limit", this, AdmissionLimiter::getLimit)
+                .description("Límite actual de operaciones en vuelo")
+                .register(meterRegistry);
+        Gauge.builder("transaction.admission.inflight", inFlight, AtomicInteger::get)
+                .description("Operaciones en vuelo contra account-service")
+                .register(meterRegistry);
+        Gauge.builder("transaction.admission.waiting", waiters, Queue::size)
+                .description("Operaciones esperando capacidad de admisión")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("transaction.admission.rejected")
+                .description("Operaciones rechazadas por el límite de admisión")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ejecuta la operación si hay capacidad; si no, falla con AdmissionRejectedException
+     */
+    public <T> Mono<T> admit(Mono<T> source) {
+        return Mono.defer(() -> {
+            if (!tryAcquire()) {
+                rejected.increment();
+                log.warn("🚦 Operación rechazada por admisión: enVuelo={}, límite={}", inFlight.get(), getLimit());
+                return Mono.error(new AdmissionRejectedException(
+                        "Servicio saturado, reintente en " + retryAfterSeconds + " s", retryAfterSeconds));
+            }
+
+            return withPermit(source);
+        });
+    }
+
+    /**
+     * Como admit, pero sin capacidad espera a que otra operación la libere en lugar de fallar
+     */
+    public <T> Mono<T> admitWhenAvailable(Mono<T> source) {
+        return Mono.defer(() -> {
+            if (!tryAcquire()) {
+                return awaitCapacity().then(admitWhenAvailable(source));
+            }
+            // Si aún queda capacidad (p. ej. el límite creció) despierta al siguiente
+            if (!waiters.isEmpty() && inFlight.get() < (int) limit) {
+                wakeWaiter();
+            }
+            return withPermit(source);
+        });
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    // ========== PRIVATE HELPERS ==========
+
+    private <T> Mono<T> withPermit(Mono<T> source) {
+        long start = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+
+        return source
+                .doOnSuccess(value -> release(released, start, false))
+                .doOnError(error -> release(released, start, error instanceof AccountValidationException))
+                .doOnCancel(() -> {
+                    if (released.compareAndSet(false, true)) {
+                        inFlight.decrementAndGet();
+                        wakeWaiter();
+                    }
+                });
+    }
+
+    /**
+     * Completa cuando una liberación avisa; el permiso se vuelve a disputar con tryAcquire
+     */
+    private Mono<Void> awaitCapacity() {
+        return Mono.create(sink -> {
+            Waiter waiter = new Waiter(sink, new AtomicBoolean());
+            sink.onCancel(() -> {
+                waiters.remove(waiter);
+                // Si ya había recibido el aviso, se lo pasa al siguiente
+                if (!waiter.woken().compareAndSet(false, true)) {
+                    wakeWaiter();
+                }
+            });
+            waiters.add(waiter);
+            // La capacidad pudo liberarse entre el tryAcquire fallido y el encolado
+            if (inFlight.get() < (int) limit) {
+                wakeWaiter();
+            }
+        });
+    }
+
+    private void wakeWaiter() {
+        Waiter waiter;
+        while ((waiter = waiters.poll()) != null) {
+            if (waiter.woken().compareAndSet(false, true)) {
+                waiter.sink().success();
+                return;
+            }
+        }
+    }
+
+    private boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void release(AtomicBoolean released, long start, boolean dropped) {
+        if (!released.compareAndSet(false, true)) {
+            return;
+        }
+
+        int inFlightBefore = inFlight.getAndDecrement();
+        boolean slow = System.nanoTime() - start > latencyThresholdNanos;
+        updateLimit(dropped || slow, inFlightBefore);
+        wakeWaiter();
+    }
+
+    /**
+     * AIMD: reducción multiplicativa ante pérdida; aumento aditivo solo si el límite se está usando
+     */
+    private synchronized void updateLimit(boolean dropped, int inFlightBefore) {
+        double current = limit;
+
+        if (dropped) {
+            limit = Math.max(minLimit, current * backoffRatio);
+        } else if (inFlightBefore * 2 >= current) {
+            limit = Math.min(maxLimit, current + 1);
+        }
+
+        if ((int) limit != (int) current) {
+            log.debug("🚦 Límite de admisión: {} → {}", (int) current, (int) limit);
+        }
+    }
+
+    private record Waiter(MonoSink<Void> sink, AtomicBoolean woken) {
+    }
+}
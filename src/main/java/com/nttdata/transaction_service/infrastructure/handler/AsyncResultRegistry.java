@@ -0,0 +1,54 @@
+package com.nttdata.transaction_service.infrastructure.handler;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nttdata.transaction_service.domain.dto.TransactionResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Resultado final de las operaciones aceptadas en modo asíncrono (202). Solo guarda un future
+ * por transactionId, con TTL; pasado ese tiempo, o en otra réplica, el estado se lee de Mongo.
+ */
+@Component
+public class AsyncResultRegistry {
+
+  private final Cache<String, CompletableFuture<TransactionResponse>> results;
+
+  public AsyncResultRegistry(MeterRegistry meterRegistry,
+                             @Value("${transaction.async.results.max-entries:100000}") long maxEntries,
+                             @Value("${transaction.async.results.expire-after-write-seconds:600}") long ttlSeconds) {
+    this.results = Caffeine.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, results, "transaction.async-results");
+  }
+
+  /**
+   * Registra la operación al quedar persistida, antes de devolver el 202
+   */
+  public void register(String transactionId) {
+    results.put(transactionId, new CompletableFuture<>());
+  }
+
+  public void complete(String transactionId, TransactionResponse response) {
+    CompletableFuture<TransactionResponse> result = results.getIfPresent(transactionId);
+    if (result != null) {
+      result.complete(response);
+    }
+  }
+
+  /**
+   * Future del resultado, o null si la operación no se aceptó en esta réplica o ya expiró
+   */
+  public CompletableFuture<TransactionResponse> find(String transactionId) {
+    return results.getIfPresent(transactionId);
+  }
+}
@@ -0,0 +1,258 @@
+package com.nttdata.transaction_service.infrastructure.handler;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nttdata.transaction_service.application.port.in.TransactionInputPort;
+import com.nttdata.transaction_service.application.port.out.IdempotencyOutputPort;
+import com.nttdata.transaction_service.domain.dto.TransactionResponse;
+import com.nttdata.transaction_service.domain.model.IdempotencyRecord;
+import com.nttdata.transaction_service.domain.model.Transaction;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Deduplica reintentos con Idempotency-Key. La clave se reserva en Mongo (PENDING, con lease) antes
+ * de ejecutar la operación, así que solo una réplica la ejecuta; si esa réplica cae antes de persistir,
+ * otra solicitud retoma la reserva al vencer el lease. La memoria con TTL une los reintentos
+ * locales a la operación en curso. Una clave reutilizada con otro cuerpo se rechaza con 422.
+ * Si la operación ya persistió su transacción y el resultado es desconocido (timeout, 5xx), la
+ * clave queda ligada a esa transacción y los reintentos reciben su estado actual en lugar de
+ * crear otra.
+ */
+@Slf4j
+@Component
+public class IdempotencyHandler {
+
+  private static final int ACCEPTED = 202;
+  private static final int TOO_MANY_REQUESTS = 429;
+  private static final int CONFLICT = 409;
+  private static final int UNPROCESSABLE_ENTITY = 422;
+  private static final int SERVICE_UNAVAILABLE = 503;
+
+  private final IdempotencyOutputPort store;
+  private final TransactionInputPort transactions;
+  private final ObjectMapper objectMapper;
+
+  // Clave → huella de la solicitud y resultado (en curso o resuelto)
+  private final Cache<String, Entry> entries;
+
+  public IdempotencyHandler(IdempotencyOutputPort store,
+                            TransactionInputPort transactions,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${transaction.idempotency.cache.max-entries:100000}") long maxEntries,
+                            @Value("${transaction.idempotency.cache.expire-after-write-seconds:600}") long ttlSeconds) {
+    this.store = store;
+    this.transactions = transactions;
+    this.objectMapper = objectMapper;
+    this.entries = Caffeine.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, entries, "transaction.idempotency");
+  }
+
+  /**
+   * Ejecuta la operación una sola vez por (operación, Idempotency-Key); sin clave la ejecuta siempre.
+   * La acción recibe el aviso de persistencia, que liga la clave a la transacción creada.
+   */
+  public Mono<TransactionResponse> execute(String operation,
+                                           String idempotencyKey,
+                                           Object request,
+                                           Function<Function<Transaction, Mono<Void>>, Mono<TransactionResponse>> action) {
+    if (idempotencyKey == null || idempotencyKey.isBlank()) {
+      return Mono.defer(() -> action.apply(transaction -> Mono.empty()));
+    }
+
+    String key = operation + ':' + idempotencyKey.trim();
+
+    return Mono.defer(() -> {
+      String requestHash = fingerprint(request);
+      Entry created = new Entry(requestHash, new CompletableFuture<>());
+      Entry entry = entries.get(key, k -> created);
+
+      if (!entry.requestHash().equals(requestHash)) {
+        return Mono.just(keyReused(key));
+      }
+
+      if (entry == created) {
+        // La operación no depende de la conexión HTTP: se suscribe aparte y su resultado es compartido
+        created.outcome().whenComplete((outcome, error) -> {
+          if (error != null || !outcome.retain()) {
+            entries.asMap().remove(key, created);
+          }
+        });
+        run(key, requestHash, action).subscribe(
+                created.outcome()::complete,
+                created.outcome()::completeExceptionally);
+        return Mono.fromFuture(created.outcome(), true).map(Outcome::response);
+      }
+
+      // El future es compartido entre reintentos: la cancelación de uno no debe cancelarlo
+      return Mono.fromFuture(entry.outcome(), true).flatMap(this::replay);
+    });
+  }
+
+  // ========== PRIVATE HELPERS ==========
+
+  /**
+   * Reserva la clave en Mongo; si otra solicitud ya la reservó se continúa desde su estado
+   */
+  private Mono<Outcome> run(String key,
+                            String requestHash,
+                            Function<Function<Transaction, Mono<Void>>, Mono<TransactionResponse>> action) {
+    return store.reserve(key, requestHash)
+            .onErrorResume(error -> {
+              log.error("❌ Error reservando Idempotency-Key: key={}, error={}", key, error.getMessage());
+              return Mono.empty();
+            })
+            .flatMap(reserved -> reserved
+                    ? executeReserved(key, action)
+                    : store.find(key)
+                            .flatMap(existing -> resume(key, requestHash, existing))
+                            .defaultIfEmpty(new Outcome(inProgress(), null, false)))
+            .defaultIfEmpty(new Outcome(TransactionResponse.error(SERVICE_UNAVAILABLE,
+                    "No se pudo registrar la Idempotency-Key, reintente más tarde"), null, false));
+  }
+
+  private Mono<Outcome> executeReserved(String key,
+                                        Function<Function<Transaction, Mono<Void>>, Mono<TransactionResponse>> action) {
+    AtomicReference<String> transactionId = new AtomicReference<>();
+
+    // La operación espera al bind: cualquier reintento posterior a la persistencia ya ve la clave ligada
+    return Mono.defer(() -> action.apply(transaction -> {
+              transactionId.set(transaction.getTransactionId());
+              return store.bindTransaction(key, transaction.getTransactionId())
+                      .onErrorResume(error -> {
+                        log.error("❌ Error ligando Idempotency-Key: key={}, error={}", key, error.getMessage());
+                        return Mono.empty();
+                      });
+            }))
+            .flatMap(response -> settle(key, response, transactionId.get()))
+            .onErrorResume(error -> transactionId.get() == null
+                    ? release(key).then(Mono.error(error))
+                    : Mono.error(error));
+  }
+
+  /**
+   * Definitiva: se guarda. Con transacción persistida y resultado aún abierto (202) o desconocido
+   * la clave sigue ligada a ella. Sin nada persistido (p. ej. 429) se libera para permitir el reintento.
+   */
+  private Mono<Outcome> settle(String key, TransactionResponse response, String transactionId) {
+    if (isFinal(response)) {
+      return store.complete(key, response)
+              .onErrorResume(error -> {
+                log.error("❌ Error guardando respuesta idempotente: key={}, error={}", key, error.getMessage());
+                return Mono.empty();
+              })
+              .thenReturn(new Outcome(response, transactionId, true));
+    }
+
+    if (transactionId != null) {
+      log.warn("⏳ Resultado desconocido, Idempotency-Key ligada a la transacción: key={}, transactionId={}",
+              key, transactionId);
+      if (response.getTransactionId() == null) {
+        response.setTransactionId(transactionId);
+      }
+      return Mono.just(new Outcome(response, transactionId, true));
+    }
+
+    return release(key).thenReturn(new Outcome(response, null, false));
+  }
+
+  /**
+   * Clave ya reservada (otra réplica o una ejecución anterior)
+   */
+  private Mono<Outcome> resume(String key, String requestHash, IdempotencyRecord existing) {
+    if (existing.getRequestHash() != null && !existing.getRequestHash().equals(requestHash)) {
+      return Mono.just(new Outcome(keyReused(key), null, false));
+    }
+
+    if (isFinal(existing.getResponse())) {
+      log.info("♻️ Respuesta idempotente recuperada de Mongo: key={}", key);
+      return Mono.just(new Outcome(existing.getResponse(), existing.getTransactionId(), true));
+    }
+
+    if (existing.getTransactionId() != null) {
+      log.info("♻️ Idempotency-Key ligada a transacción existente: key={}, transactionId={}",
+              key, existing.getTransactionId());
+      return transactions.getTransactionStatus(existing.getTransactionId())
+              .map(status -> new Outcome(status, existing.getTransactionId(), true));
+    }
+
+    return Mono.just(new Outcome(inProgress(), null, false));
+  }
+
+  /**
+   * Reintento unido a un resultado en memoria: si era desconocido se consulta el estado actual
+   */
+  private Mono<TransactionResponse> replay(Outcome outcome) {
+    if (outcome.transactionId() != null && !isFinal(outcome.response())) {
+      return transactions.getTransactionStatus(outcome.transactionId());
+    }
+    return Mono.just(outcome.response());
+  }
+
+  private Mono<Void> release(String key) {
+    return store.release(key)
+            .onErrorResume(error -> {
+              log.error("❌ Error liberando Idempotency-Key: key={}, error={}", key, error.getMessage());
+              return Mono.empty();
+            });
+  }
+
+  private String fingerprint(Object request) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+      return HexFormat.of().formatHex(digest);
+    } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+      throw new IllegalStateException("No se pudo calcular la huella de la solicitud", e);
+    }
+  }
+
+  private TransactionResponse keyReused(String key) {
+    log.warn("⚠️ Idempotency-Key reutilizada con otra solicitud: key={}", key);
+    return TransactionResponse.error(UNPROCESSABLE_ENTITY,
+            "La Idempotency-Key ya se usó con una solicitud distinta");
+  }
+
+  private TransactionResponse inProgress() {
+    return TransactionResponse.error(CONFLICT, "Operación en curso con la misma Idempotency-Key");
+  }
+
+  /**
+   * 5xx, 429 (rechazo por admisión) y 202 (aceptada en modo asíncrono) no son definitivos: el
+   * reintento debe volver a ejecutarse o, si ya hay transacción, consultar su estado
+   */
+  private boolean isFinal(TransactionResponse response) {
+    return response != null
+            && response.getCodResponse() != null
+            && response.getCodResponse() < 500
+            && response.getCodResponse() != TOO_MANY_REQUESTS
+            && response.getCodResponse() != ACCEPTED;
+  }
+
+  /**
+   * retain: el resultado puede reutilizarse desde memoria (definitivo o ligado a una transacción)
+   */
+  private record Outcome(TransactionResponse response, String transactionId, boolean retain) {
+  }
+
+  private record Entry(String requestHash, CompletableFuture<Outcome> outcome) {
+  }
+}
@@ -1,24 +1,77 @@
 package com.nttdata.transaction_service.infrastructure.handler;
 
+import com.ettdata.avro.AccountValidationBatchResponse;
+import com.ettdata.avro.AccountValidationItemResult;
 import com.ettdata.avro.AccountValidationResponse;
+import com.nttdata.transaction_service.domain.error.AccountValidationTimeoutException;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.MonoSink;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Tabla de correlación transactionId → sink con deadline por entrada.
+ * Las expiraciones se programan en un hashed timer wheel (O(1) por alta y baja).
+ * Los lotes coalescidos se correlacionan por batchId y su respuesta se reparte a los sinks
+ * de cada transacción del lote.
+ */
 @Component
 @Slf4j
 public class PendingResponseHandler {
-    private final ConcurrentMap<String, MonoSink<AccountValidationResponse>> pendingResponses =
+    private final ConcurrentMap<String, PendingResponse> pendingResponses =
             new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, PendingBatch> pendingBatches =
+            new ConcurrentHashMap<>();
+
+    private final AtomicLong expiredCount = new AtomicLong();
+    private final HashedWheelTimer timer;
+    private final long timeoutMillis;
+
+    public PendingResponseHandler(
+            @Value("${transaction.validation.timeout-seconds}") int timeoutSeconds,
+            @Value("${transaction.validation.timer.tick-millis:100}") long tickMillis,
+            @Value("${transaction.validation.timer.wheel-size:512}") int wheelSize) {
+        this.timeoutMillis = TimeUnit.SECONDS.toMillis(timeoutSeconds);
+        this.timer = new HashedWheelTimer(
+                new DefaultThreadFactory("pending-response-timer", true),
+                tickMillis, TimeUnit.MILLISECONDS, wheelSize);
+    }
 
     /**
-     * Registra un sink para una transacción pendiente
+     * Registra un sink para una transacción pendiente con su deadline
      */
     public void register(String transactionId, MonoSink<AccountValidationResponse> sink) {
-        pendingResponses.put(transactionId, sink);
+        PendingResponse pending = new PendingResponse(sink, System.currentTimeMillis() + timeoutMillis);
+        pending.timeout = timer.newTimeout(
+                timeout -> expire(transactionId, pending), timeoutMillis, TimeUnit.MILLISECONDS);
+
+        PendingResponse previous = pendingResponses.put(transactionId, pending);
+        if (previous != null) {
+            previous.timeout.cancel();
+            log.warn("⚠️ Sink duplicado reemplazado para transactionId: {}", transactionId);
+        }
+
+        // Si el suscriptor cancela (timeout externo, cliente desconectado) liberamos la entrada
+        sink.onCancel(() -> {
+            if (pendingResponses.remove(transactionId, pending)) {
+                pending.timeout.cancel();
+            }
+        });
+
         log.debug("🔑 Sink registrado para transactionId: {}. Total pendientes: {}",
                 transactionId, pendingResponses.size());
     }
@@ -27,30 +80,116 @@ public class PendingResponseHandler {
      * Completa un sink cuando llega la respuesta
      */
     public boolean complete(String transactionId, AccountValidationResponse response) {
-        MonoSink<AccountValidationResponse> sink = pendingResponses.remove(transactionId);
+        PendingResponse pending = pendingResponses.remove(transactionId);
 
-        if (sink != null) {
+        if (pending != null) {
+            pending.timeout.cancel();
             log.info("✅ Completando sink para transactionId: {}", transactionId);
-            sink.success(response);
+            pending.sink.success(response);
             return true;
         } else {
-            log.warn("⚠️ No se encontró sink para transactionId: {}. Pendientes actuales: {}",
-                    transactionId, pendingResponses.keySet());
+            log.debug("No se encontró sink para transactionId: {}. Pendientes actuales: {}",
+                    transactionId, pendingResponses.size());
             return false;
         }
     }
 
+    /**
+     * Completa en una pasada los sinks de un lote de respuestas
+     * @return número de sinks completados
+     */
+    public int completeAll(List<AccountValidationResponse> responses) {
+        int completed = 0;
+
+        for (AccountValidationResponse response : responses) {
+            String transactionId = String.valueOf(response.getTransactionId());
+            PendingResponse pending = pendingResponses.remove(transactionId);
+
+            if (pending != null) {
+                pending.timeout.cancel();
+                pending.sink.success(response);
+                completed++;
+            } else {
+                log.debug("No se encontró sink para transactionId: {}", transactionId);
+            }
+        }
+
+        return completed;
+    }
+
+    // ========== COALESCED BATCHES ==========
+
+    /**
+     * Registra un lote ya enviado; cada transacción conserva su propio sink y deadline, la
+     * entrada del lote solo se retiene hasta el mismo deadline
+     */
+    public void registerBatch(String batchId, List<String> transactionIds) {
+        PendingBatch batch = new PendingBatch(transactionIds);
+        batch.timeout = timer.newTimeout(
+                timeout -> pendingBatches.remove(batchId, batch), timeoutMillis, TimeUnit.MILLISECONDS);
+        pendingBatches.put(batchId, batch);
+    }
+
+    /**
+     * Reparte la respuesta del lote en una respuesta por transacción (el resultado propio de la
+     * operación si viene, si no el del lote), lista para completeAll
+     */
+    public List<AccountValidationResponse> expandBatch(AccountValidationBatchResponse response) {
+        PendingBatch batch = pendingBatches.remove(String.valueOf(response.getBatchId()));
+        if (batch == null) {
+            return List.of();
+        }
+        batch.timeout.cancel();
+
+        Map<String, AccountValidationItemResult> results = new HashMap<>();
+        for (AccountValidationItemResult result : response.getResults()) {
+            results.put(String.valueOf(result.getTransactionId()), result);
+        }
+
+        List<AccountValidationResponse> responses = new ArrayList<>(batch.transactionIds.size());
+        for (String transactionId : batch.transactionIds) {
+            AccountValidationItemResult result = results.get(transactionId);
+            responses.add(AccountValidationResponse.newBuilder()
+                    .setTransactionId(transactionId)
+                    .setAccountNumber(response.getAccountNumber())
+                    .setCodResponse(result != null ? result.getCodResponse() : response.getCodResponse())
+                    .setMessageResponse(result != null ? result.getMessageResponse() : response.getMessageResponse())
+                    .build());
+        }
+        return responses;
+    }
+
+    /**
+     * Falla los sinks de todas las transacciones del lote (p. ej. error al enviarlo)
+     */
+    public void errorBatch(String batchId, Throwable error) {
+        PendingBatch batch = pendingBatches.remove(batchId);
+        if (batch != null) {
+            batch.timeout.cancel();
+            batch.transactionIds.forEach(transactionId -> error(transactionId, error));
+        }
+    }
+
     /**
      * Cancela un sink por error
      */
     public void error(String transactionId, Throwable error) {
-        MonoSink<AccountValidationResponse> sink = pendingResponses.remove(transactionId);
+        PendingResponse pending = pendingResponses.remove(transactionId);
 
-        if (sink != null) {
+        if (pending != null) {
+            pending.timeout.cancel();
             log.error("❌ Error en sink para transactionId: {}", transactionId, error);
-            sink.error(error);
+            pending.sink.error(error);
         }
     }
+
+    /**
+     * Indica si esta instancia espera respuesta para el transactionId o batchId (sin consumir la entrada)
+     */
+    public boolean isPending(String transactionId) {
+        return pendingResponses.containsKey(transactionId) || pendingBatches.containsKey(transactionId);
+    }
+
     /**
      * Obtiene el número de respuestas pendientes
      */
@@ -59,13 +198,71 @@ public class PendingResponseHandler {
     }
 
     /**
-     * Limpia sinks antiguos (útil para evitar memory leaks)
+     * Obtiene el número acumulado de respuestas expiradas por deadline
+     */
+    public long getExpiredCount() {
+        return expiredCount.get();
+    }
+
+    /**
+     * Falla todos los sinks pendientes, incluidos los de lotes coalescidos (p. ej. al detener el servicio)
      */
     public void cleanup() {
+        if (!pendingBatches.isEmpty()) {
+            log.warn("🧹 Limpiando {} lotes pendientes", pendingBatches.size());
+            pendingBatches.keySet().forEach(batchId -> errorBatch(batchId,
+                    new AccountValidationTimeoutException("Validación cancelada para batchId: " + batchId)));
+        }
+
         int count = pendingResponses.size();
         if (count > 0) {
             log.warn("🧹 Limpiando {} sinks pendientes", count);
-            pendingResponses.clear();
+            pendingResponses.forEach((transactionId, pending) -> error(transactionId,
+                    new AccountValidationTimeoutException(
+                            "Validación cancelada para transactionId: " + transactionId)));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cleanup();
+        timer.stop();
+    }
+
+    // ========== PRIVATE HELPERS ==========
+
+    /**
+     * Expira una entrada cuyo deadline venció sin respuesta de account-service
+     */
+    private void expire(String transactionId, PendingResponse pending) {
+        // remove(key, value) evita expirar un registro posterior con el mismo id
+        if (pendingResponses.remove(transactionId, pending)) {
+            expiredCount.incrementAndGet();
+            log.warn("⏰ Deadline vencido para transactionId: {} (deadline={})",
+                    transactionId, Instant.ofEpochMilli(pending.deadline));
+            pending.sink.error(new AccountValidationTimeoutException(
+                    "Sin respuesta de account-service en " + timeoutMillis + " ms para transactionId: "
+                            + transactionId));
+        }
+    }
+
+    private static final class PendingBatch {
+        private final List<String> transactionIds;
+        private Timeout timeout;
+
+        private PendingBatch(List<String> transactionIds) {
+            this.transactionIds = transactionIds;
+        }
+    }
+
+    private static final class PendingResponse {
+        private final MonoSink<AccountValidationResponse> sink;
+        private final long deadline;
+        private Timeout timeout;
+
+        private PendingResponse(MonoSink<AccountValidationResponse> sink, long deadline) {
+            this.sink = sink;
+            this.deadline = deadline;
         }
     }
 }
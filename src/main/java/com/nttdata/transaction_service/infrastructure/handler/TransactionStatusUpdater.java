@@ -0,0 +1,120 @@
+package com.nttdata.transaction_service.infrastructure.handler;
+
+import com.nttdata.transaction_service.application.port.out.TransactionRepositoryOutputPort;
+import com.nttdata.transaction_service.domain.model.Transaction;
+import com.nttdata.transaction_service.domain.model.enums.TransactionStatus;
+import com.nttdata.transaction_service.infrastructure.utils.SinkEmission;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Aplica los cambios de estado en segundo plano (write-behind). Los cambios se acumulan
+ * durante flush-millis (o hasta max-batch) y se escriben con un updateMulti por estado,
+ * en lugar de un round trip a Mongo por transacción. Al apagar se espera (acotado) a que se
+ * escriba lo encolado; lo que quede PENDING lo resuelve StalePendingTransactionSweepJob.
+ */
+@Slf4j
+@Component
+public class TransactionStatusUpdater {
+
+    private static final int MAX_RETRIES = 3;
+    private static final Duration RETRY_BACKOFF = Duration.ofMillis(50);
+
+    private final TransactionRepositoryOutputPort transactionRepository;
+    private final Sinks.Many<StatusChange> changes;
+    private final Disposable pipeline;
+    private final CountDownLatch drained = new CountDownLatch(1);
+    private final Duration shutdownTimeout;
+
+    public TransactionStatusUpdater(TransactionRepositoryOutputPort transactionRepository,
+                                    @Value("${transaction.status-updater.flush-millis:5}") long flushMillis,
+                                    @Value("${transaction.status-updater.max-batch:1000}") int maxBatch,
+                                    @Value("${transaction.status-updater.queue-capacity:65536}") int queueCapacity,
+                                    @Value("${transaction.status-updater.shutdown-timeout-seconds:10}") long shutdownTimeoutSeconds) {
+        this.transactionRepository = transactionRepository;
+        this.shutdownTimeout = Duration.ofSeconds(shutdownTimeoutSeconds);
+        this.changes = Sinks.many().unicast().onBackpressureBuffer(
+                Queues.<StatusChange>get(queueCapacity).get());
+
+        // fairBackpressure: mientras se escribe un lote, el siguiente se sigue acumulando
+        this.pipeline = changes.asFlux()
+                .bufferTimeout(maxBatch, Duration.ofMillis(flushMillis), true)
+                .concatMap(this::flush)
+                .doFinally(signal -> drained.countDown())
+                .subscribe(
+                        null,
+                        error -> log.error("❌ Actualizador de estados terminado: {}", error.getMessage(), error));
+    }
+
+    /**
+     * Encola el cambio de estado sin esperar a Mongo; si no se puede encolar (cola llena o contención
+     * prolongada) se escribe directamente
+     */
+    public void submit(List<Transaction> transactions, TransactionStatus status) {
+        StatusChange change = new StatusChange(transactions, status);
+
+        Sinks.EmitResult result = SinkEmission.tryEmitNext(changes, change);
+
+        if (result.isFailure()) {
+            log.warn("⚠️ Cola de estados no disponible ({}), escritura directa: {} transacciones → {}",
+                    result, transactions.size(), status);
+            flush(List.of(change)).subscribe();
+        }
+    }
+
+    /**
+     * Vacía lo pendiente al apagar (bufferTimeout emite el último lote al completarse) y espera a
+     * que se escriba antes de que se cierre el cliente de Mongo
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        changes.tryEmitComplete();
+        if (!drained.await(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("⚠️ Cambios de estado sin escribir tras {} s; quedan PENDING hasta el próximo barrido",
+                    shutdownTimeout.toSeconds());
+        }
+        pipeline.dispose();
+    }
+
+    // ========== PRIVATE HELPERS ==========
+
+    private Mono<Void> flush(List<StatusChange> batch) {
+        Map<TransactionStatus, List<Transaction>> byStatus = batch.stream()
+                .collect(Collectors.groupingBy(
+                        StatusChange::status,
+                        () -> new EnumMap<>(TransactionStatus.class),
+                        Collectors.flatMapping(change -> change.transactions().stream(), Collectors.toList())));
+
+        return Flux.fromIterable(byStatus.entrySet())
+                .flatMap(entry -> transactionRepository.updateStatus(entry.getValue(), entry.getKey())
+                        .retryWhen(Retry.backoff(MAX_RETRIES, RETRY_BACKOFF))
+                        .doOnSuccess(unused -> log.debug("🔄 Estados aplicados: {} transacciones → {}",
+                                entry.getValue().size(), entry.getKey()))
+                        .onErrorResume(error -> {
+                            // Quedan PENDING; la reconstrucción de resúmenes no las cuenta
+                            log.error("❌ Error aplicando estado {} a {} transacciones: {}",
+                                    entry.getKey(), entry.getValue().size(), error.getMessage());
+                            return Mono.empty();
+                        }))
+                .then();
+    }
+
+    private record StatusChange(List<Transaction> transactions, TransactionStatus status) {
+    }
+}
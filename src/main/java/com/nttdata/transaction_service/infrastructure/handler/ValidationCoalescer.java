@@ -0,0 +1,96 @@
+package com.nttdata.transaction_service.infrastructure.handler;
+
+import reactor.core.scheduler.Scheduler;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Ventana de coalescencia por cuenta: la primera operación de una cuenta abre una ventana de
+ * windowMillis y las que llegan mientras está abierta se agregan a ella. Al cerrarse (por tiempo
+ * o al llegar a maxItems) la ventana se entrega completa al flusher, en orden de llegada.
+ */
+public class ValidationCoalescer {
+
+    /**
+     * Operación pendiente de validar; amount siempre positivo, el tipo indica el signo
+     */
+    public record Item(String transactionId, String accountNumber, String transactionType, BigDecimal amount) {
+    }
+
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+    private final long windowMillis;
+    private final int maxItems;
+    private final Scheduler scheduler;
+    private final Consumer<List<Item>> flusher;
+
+    public ValidationCoalescer(long windowMillis, int maxItems, Scheduler scheduler, Consumer<List<Item>> flusher) {
+        this.windowMillis = windowMillis;
+        this.maxItems = Math.max(1, maxItems);
+        this.scheduler = scheduler;
+        this.flusher = flusher;
+    }
+
+    /**
+     * Agrega la operación a la ventana abierta de su cuenta o abre una nueva
+     */
+    public void add(Item item) {
+        String accountNumber = item.accountNumber();
+        Window[] full = new Window[1];
+        boolean[] opened = new boolean[1];
+
+        // compute serializa las altas de una misma cuenta; la ventana llena sale del mapa aquí mismo
+        Window window = windows.compute(accountNumber, (account, current) -> {
+            Window target = current;
+            if (target == null) {
+                target = new Window();
+                opened[0] = true;
+            }
+            target.items.add(item);
+            if (target.items.size() >= maxItems) {
+                full[0] = target;
+                return null;
+            }
+            return target;
+        });
+
+        if (full[0] != null) {
+            flusher.accept(full[0].items);
+        } else if (opened[0]) {
+            scheduler.schedule(() -> flush(accountNumber, window), windowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Cierra y entrega todas las ventanas abiertas (p. ej. al detener el servicio)
+     */
+    public void flushAll() {
+        windows.forEach(this::flush);
+    }
+
+    /**
+     * Cuentas con una ventana abierta
+     */
+    public int getOpenWindows() {
+        return windows.size();
+    }
+
+    // ========== PRIVATE HELPERS ==========
+
+    /**
+     * remove(key, value): si la ventana ya salió por maxItems, el cierre por tiempo no hace nada
+     */
+    private void flush(String accountNumber, Window window) {
+        if (windows.remove(accountNumber, window)) {
+            flusher.accept(window.items);
+        }
+    }
+
+    private static final class Window {
+        private final List<Item> items = new ArrayList<>();
+    }
+}
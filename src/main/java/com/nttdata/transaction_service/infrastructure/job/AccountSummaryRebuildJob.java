@@ -0,0 +1,47 @@
+package com.nttdata.transaction_service.infrastructure.job;
+
+import com.nttdata.transaction_service.application.port.out.AccountSummaryOutputPort;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Recalcula en paralelo todos los resúmenes de cuenta desde la colección de transacciones
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccountSummaryRebuildJob {
+
+  private final AccountSummaryOutputPort accountSummary;
+
+  @Value("${transaction.summary.rebuild-on-startup:false}")
+  private boolean rebuildOnStartup;
+
+  @Value("${transaction.summary.rebuild-concurrency:8}")
+  private int concurrency;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuildOnStartup() {
+    if (rebuildOnStartup) {
+      rebuild().onErrorResume(error -> Mono.empty()).subscribe();
+    }
+  }
+
+  /**
+   * Ejecuta la reconstrucción completa
+   */
+  public Mono<Long> rebuild() {
+    long start = System.currentTimeMillis();
+    log.info("🔁 Reconstruyendo resúmenes de cuenta (concurrencia={})", concurrency);
+
+    return accountSummary.rebuildAll(concurrency)
+            .doOnSuccess(accounts -> log.info("✅ {} resúmenes reconstruidos en {} ms",
+                    accounts, System.currentTimeMillis() - start))
+            .doOnError(error -> log.error("❌ Error reconstruyendo resúmenes: {}", error.getMessage(), error));
+  }
+}
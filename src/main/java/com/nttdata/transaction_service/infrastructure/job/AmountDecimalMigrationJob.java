@@ -0,0 +1,64 @@
+package com.nttdata.transaction_service.infrastructure.job;
+
+import com.nttdata.transaction_service.infrastructure.entity.TransactionEntity;
+import com.nttdata.transaction_service.infrastructure.entity.ValidationOutboxEntity;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Migra en el servidor los montos guardados como String (mapeo por defecto de BigDecimal) a
+ * Decimal128 con un único updateMulti de pipeline ($toDecimal). Es idempotente: solo toca
+ * los documentos cuyo amount sigue siendo String.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AmountDecimalMigrationJob {
+
+  private static final int BSON_STRING_TYPE = 2;
+
+  private final ReactiveMongoTemplate mongoTemplate;
+
+  @Value("${transaction.migration.decimal-amounts-on-startup:false}")
+  private boolean migrateOnStartup;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void migrateOnStartup() {
+    if (migrateOnStartup) {
+      migrate().onErrorResume(error -> Mono.empty()).subscribe();
+    }
+  }
+
+  /**
+   * Ejecuta la migración sobre transacciones y outbox; devuelve los documentos modificados
+   */
+  public Mono<Long> migrate() {
+    long start = System.currentTimeMillis();
+    log.info("🔁 Migrando montos String a Decimal128");
+
+    return migrate(TransactionEntity.class)
+            .zipWith(migrate(ValidationOutboxEntity.class), Long::sum)
+            .doOnSuccess(modified -> log.info("✅ {} montos migrados a Decimal128 en {} ms",
+                    modified, System.currentTimeMillis() - start))
+            .doOnError(error -> log.error("❌ Error migrando montos: {}", error.getMessage(), error));
+  }
+
+  private Mono<Long> migrate(Class<?> entityClass) {
+    Query stringAmounts = Query.query(Criteria.where("amount").type(BSON_STRING_TYPE));
+    AggregationUpdate toDecimal = AggregationUpdate.update()
+            .set("amount").toValue(ConvertOperators.valueOf("amount").convertToDecimal());
+
+    return mongoTemplate.updateMulti(stringAmounts, toDecimal, mongoTemplate.getCollectionName(entityClass))
+            .map(result -> result.getModifiedCount());
+  }
+}
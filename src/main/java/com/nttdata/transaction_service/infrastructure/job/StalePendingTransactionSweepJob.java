@@ -0,0 +1,79 @@
+package com.nttdata.transaction_service.infrastructure.job;
+
+import com.nttdata.transaction_service.application.port.out.TransactionRepositoryOutputPort;
+import com.nttdata.transaction_service.domain.model.Transaction;
+import com.nttdata.transaction_service.domain.model.enums.TransactionStatus;
+import com.nttdata.transaction_service.infrastructure.config.OutboxProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Al arrancar marca TIMED_OUT las transacciones que siguen PENDING mucho después de su deadline
+ * (cambios de estado perdidos al apagarse una réplica, o una réplica caída con validaciones en
+ * vuelo). TIMED_OUT es el estado de resultado desconocido; con outbox, la solicitud aún no
+ * reclamada se descarta. El cambio solo se aplica desde PENDING: varias réplicas pueden
+ * ejecutarlo a la vez.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StalePendingTransactionSweepJob {
+
+  private static final int SWEEP_BATCH = 1000;
+
+  private final TransactionRepositoryOutputPort transactionRepository;
+  private final OutboxProperties outbox;
+
+  @Value("${transaction.status-updater.sweep-on-startup:true}")
+  private boolean sweepOnStartup;
+
+  // Debe superar transaction.validation.timeout-seconds: antes, la validación aún puede responder
+  @Value("${transaction.status-updater.stale-pending-seconds:300}")
+  private long stalePendingSeconds;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void sweepOnStartup() {
+    if (sweepOnStartup) {
+      sweep().onErrorResume(error -> Mono.empty()).subscribe();
+    }
+  }
+
+  /**
+   * Resuelve las PENDING anteriores al umbral; devuelve cuántas se encontraron
+   */
+  public Mono<Long> sweep() {
+    LocalDateTime before = LocalDateTime.now().minusSeconds(stalePendingSeconds);
+
+    return transactionRepository.findPendingBefore(before)
+            .buffer(SWEEP_BATCH)
+            .concatMap(batch -> expireOutbox(batch.stream().map(Transaction::getTransactionId).toList())
+                    .then(transactionRepository.updateStatus(batch, TransactionStatus.TIMED_OUT))
+                    .thenReturn((long) batch.size()))
+            .reduce(0L, Long::sum)
+            .doOnSuccess(swept -> {
+              if (swept > 0) {
+                log.warn("🧹 {} transacciones PENDING anteriores a {} marcadas TIMED_OUT", swept, before);
+              }
+            })
+            .doOnError(error -> log.error("❌ Error resolviendo transacciones PENDING: {}",
+                    error.getMessage(), error));
+  }
+
+  private Mono<Void> expireOutbox(List<String> transactionIds) {
+    if (!outbox.isEnabled()) {
+      return Mono.empty();
+    }
+    return Flux.fromIterable(transactionIds)
+            .concatMap(transactionRepository::expireOutbox)
+            .then();
+  }
+}
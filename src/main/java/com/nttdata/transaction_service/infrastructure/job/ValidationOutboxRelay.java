@@ -0,0 +1,119 @@
+package com.nttdata.transaction_service.infrastructure.job;
+
+import com.ettdata.avro.AccountValidationRequest;
+import com.nttdata.transaction_service.infrastructure.adapter.AccountValidationRecordFactory;
+import com.nttdata.transaction_service.infrastructure.adapter.ValidationOutboxAdapter;
+import com.nttdata.transaction_service.infrastructure.config.OutboxProperties;
+import com.nttdata.transaction_service.infrastructure.entity.ValidationOutboxEntity;
+import com.nttdata.transaction_service.infrastructure.metrics.TransactionMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Publica en Kafka las solicitudes de validation_outbox. Cada ciclo reclama un lote, lo envía
+ * completo sin esperar mensaje a mensaje (el productor agrupa por linger/batch.size) y marca
+ * como publicados los confirmados. Los que fallan conservan el lease y se reintentan al vencer.
+ * Entrega al menos una vez: account-service debe tolerar un transactionId repetido. Los mensajes
+ * cuya espera venció antes de reclamarse quedan expirados (ValidationOutboxAdapter.expire) y no se
+ * publican; uno expirado durante su envío no vuelve a reclamarse si ese envío falla.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "transaction.outbox.enabled", havingValue = "true")
+public class ValidationOutboxRelay {
+
+  private static final Duration MAX_BACKOFF = Duration.ofSeconds(5);
+
+  private final ValidationOutboxAdapter outbox;
+  private final KafkaTemplate<String, AccountValidationRequest> kafkaTemplate;
+  private final AccountValidationRecordFactory recordFactory;
+  private final TransactionMetrics metrics;
+  private final OutboxProperties properties;
+
+  private volatile Disposable relay;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    Duration pollInterval = Duration.ofMillis(properties.getPollIntervalMillis());
+    log.info("📮 Relay de outbox iniciado: lote={}, intervalo={} ms",
+            properties.getBatchSize(), properties.getPollIntervalMillis());
+
+    // Con lotes llenos se encadena el siguiente ciclo sin espera
+    relay = Mono.defer(this::relayBatch)
+            .flatMap(claimed -> claimed < properties.getBatchSize()
+                    ? Mono.delay(pollInterval).thenReturn(claimed)
+                    : Mono.just(claimed))
+            .repeat()
+            .retryWhen(Retry.backoff(Long.MAX_VALUE, pollInterval)
+                    .maxBackoff(MAX_BACKOFF)
+                    .doBeforeRetry(signal -> log.error("❌ Error en relay de outbox: {}",
+                            signal.failure().getMessage())))
+            .subscribe();
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (relay != null) {
+      relay.dispose();
+    }
+  }
+
+  /**
+   * Un ciclo del relay; devuelve cuántos mensajes se reclamaron
+   */
+  public Mono<Integer> relayBatch() {
+    return outbox.claimBatch(properties.getBatchSize(), Duration.ofSeconds(properties.getLeaseSeconds()))
+            .collectList()
+            .flatMap(claimed -> claimed.isEmpty()
+                    ? Mono.just(0)
+                    : publishAll(claimed)
+                            .flatMap(published -> outbox.markPublished(claimed.get(0).getClaimToken(), published)
+                                    .doOnSuccess(unused -> {
+                                      metrics.countOutboxRecords(TransactionMetrics.OUTBOX_PUBLISHED, published.size());
+                                      metrics.countOutboxRecords(TransactionMetrics.OUTBOX_FAILED,
+                                              claimed.size() - published.size());
+                                      log.debug("📮 Outbox: {}/{} solicitudes publicadas",
+                                              published.size(), claimed.size());
+                                    }))
+                            .thenReturn(claimed.size()));
+  }
+
+  /**
+   * Envía todo el lote y devuelve los transactionId confirmados por Kafka
+   */
+  private Mono<List<String>> publishAll(List<ValidationOutboxEntity> claimed) {
+    return Flux.fromIterable(claimed)
+            .flatMap(this::publish, claimed.size())
+            .collectList();
+  }
+
+  private Mono<String> publish(ValidationOutboxEntity message) {
+    return Mono.fromFuture(() -> kafkaTemplate.send(recordFactory.create(
+                    message.getTransactionId(),
+                    message.getAccountNumber(),
+                    message.getAmount(),
+                    message.getTransactionType(),
+                    message.getTargetAccountNumber(),
+                    message.getReplyInstanceId())))
+            .thenReturn(message.getTransactionId())
+            .onErrorResume(error -> {
+              log.warn("⚠️ Solicitud de outbox no publicada: transactionId={}, error={}",
+                      message.getTransactionId(), error.getMessage());
+              return Mono.empty();
+            });
+  }
+}
@@ -0,0 +1,159 @@
+package com.nttdata.transaction_service.infrastructure.metrics;
+
+import com.nttdata.transaction_service.domain.dto.TransactionResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Histogramas de latencia por etapa (validación, Mongo, envío a Kafka, espera de respuesta)
+ * y de extremo a extremo por operación. Publican p50/p99/p999 en /actuator/metrics.
+ * Incluye además los contadores del topic de respuestas.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransactionMetrics {
+
+  // ========== CONSTANTS ==========
+
+  public static final String OPERATION_DEPOSIT = "deposit";
+  public static final String OPERATION_WITHDRAWAL = "withdrawal";
+  public static final String OPERATION_TRANSFER = "transfer";
+  public static final String OPERATION_OUTBOX = "outbox";
+  public static final String OPERATION_BATCH = "batch";
+  public static final String OPERATION_COALESCED = "coalesced";
+
+  public static final String STAGE_VALIDATION = "validation";
+  public static final String STAGE_PERSISTENCE = "persistence";
+  public static final String STAGE_KAFKA_SEND = "kafka-send";
+  public static final String STAGE_REPLY_WAIT = "reply-wait";
+
+  public static final String OUTCOME_SUCCESS = "success";
+  public static final String OUTCOME_ERROR = "error";
+
+  public static final String REPLY_DECODED = "decoded";
+  public static final String REPLY_SKIPPED = "skipped";
+
+  public static final String OUTBOX_PUBLISHED = "published";
+  public static final String OUTBOX_FAILED = "failed";
+  public static final String OUTBOX_EXPIRED = "expired";
+
+  private static final String STAGE_TIMER = "transaction.stage.latency";
+  private static final String OPERATION_TIMER = "transaction.operation.latency";
+  private static final String REPLY_RECORDS_COUNTER = "transaction.reply.records";
+  private static final String OUTBOX_RECORDS_COUNTER = "transaction.outbox.records";
+  private static final String COALESCING_COUNTER = "transaction.coalescing";
+  private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+
+  private final MeterRegistry registry;
+  private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+  // ========== REACTIVE WRAPPERS ==========
+
+  /**
+   * Mide una etapa desde la suscripción hasta su terminación (success/error)
+   */
+  public <T> Mono<T> timeStage(String stage, String operation, Mono<T> source) {
+    return Mono.defer(() -> {
+      long start = System.nanoTime();
+      return source
+              .doOnSuccess(value -> recordStage(stage, operation, OUTCOME_SUCCESS, System.nanoTime() - start))
+              .doOnError(error -> recordStage(stage, operation, OUTCOME_ERROR, System.nanoTime() - start));
+    });
+  }
+
+  /**
+   * Mide la operación completa, etiquetada con el codResponse final (200/400/500/503...)
+   */
+  public Mono<TransactionResponse> timeOperation(String operation, Mono<TransactionResponse> source) {
+    return Mono.defer(() -> {
+      long start = System.nanoTime();
+      return source.doOnSuccess(response -> recordOperation(
+              operation, outcomeOf(response), System.nanoTime() - start));
+    });
+  }
+
+  // ========== RECORDING ==========
+
+  public void recordStage(String stage, String operation, String outcome, long elapsedNanos) {
+    timer(STAGE_TIMER, stage, operation, outcome).record(elapsedNanos, TimeUnit.NANOSECONDS);
+  }
+
+  public void recordOperation(String operation, String outcome, long elapsedNanos) {
+    timer(OPERATION_TIMER, null, operation, outcome).record(elapsedNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Registros del topic de respuestas decodificados frente a descartados por header
+   */
+  public void countReplyRecords(String result, int count) {
+    if (count > 0) {
+      counters.computeIfAbsent(result, ignored -> Counter.builder(REPLY_RECORDS_COUNTER)
+                      .tag("result", result)
+                      .register(registry))
+              .increment(count);
+    }
+  }
+
+  /**
+   * Solicitudes del outbox publicadas o pendientes de reintento tras un ciclo del relay
+   */
+  public void countOutboxRecords(String result, int count) {
+    if (count > 0) {
+      counters.computeIfAbsent(OUTBOX_RECORDS_COUNTER + ":" + result,
+                      ignored -> Counter.builder(OUTBOX_RECORDS_COUNTER)
+                              .tag("result", result)
+                              .register(registry))
+              .increment(count);
+    }
+  }
+
+  /**
+   * Ventana de coalescencia cerrada: operaciones validadas frente a mensajes enviados
+   * (operations - messages = mensajes ahorrados)
+   */
+  public void countCoalesced(int operations) {
+    coalescingCounter("operations").increment(operations);
+    coalescingCounter("messages").increment();
+  }
+
+  // ========== PRIVATE HELPERS ==========
+
+  private Counter coalescingCounter(String type) {
+    return counters.computeIfAbsent(COALESCING_COUNTER + ":" + type,
+            ignored -> Counter.builder(COALESCING_COUNTER)
+                    .tag("type", type)
+                    .register(registry));
+  }
+
+  /**
+   * Cachea los timers por combinación de tags para no reconstruir el Meter.Id en cada registro
+   */
+  private Timer timer(String name, String stage, String operation, String outcome) {
+    String key = name + '|' + stage + '|' + operation + '|' + outcome;
+    return timers.computeIfAbsent(key, ignored -> {
+      Timer.Builder builder = Timer.builder(name)
+              .tag("operation", operation)
+              .tag("outcome", outcome)
+              .publishPercentiles(PERCENTILES);
+      if (stage != null) {
+        builder.tag("stage", stage);
+      }
+      return builder.register(registry);
+    });
+  }
+
+  private String outcomeOf(TransactionResponse response) {
+    return response != null && response.getCodResponse() != null
+            ? String.valueOf(response.getCodResponse())
+            : OUTCOME_ERROR;
+  }
+}
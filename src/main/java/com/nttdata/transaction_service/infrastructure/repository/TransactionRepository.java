@@ -2,8 +2,10 @@ package com.nttdata.transaction_service.infrastructure.repository;
 
 import com.nttdata.transaction_service.infrastructure.entity.TransactionEntity;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
-import reactor.core.publisher.Flux;
 
+/**
+ * Operaciones por id sobre la colección de transacciones. Las consultas de historial y las
+ * escrituras van por ReactiveMongoTemplate con Transaction directo (TransactionDocumentConverters).
+ */
 public interface TransactionRepository extends ReactiveMongoRepository<TransactionEntity, String> {
- Flux<TransactionEntity> findAllTransactionByAccountNumber(String accountNumber);
 }
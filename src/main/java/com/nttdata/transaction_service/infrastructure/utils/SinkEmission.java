@@ -0,0 +1,34 @@
+package com.nttdata.transaction_service.infrastructure.utils;
+
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+
+/**
+ * Emisión en sinks con varios productores. FAIL_NON_SERIALIZED (otro hilo emitiendo en ese
+ * instante) se reintenta con Sinks.EmitFailureHandler.busyLooping hasta un deadline corto; el
+ * resto de resultados (cola llena, sin suscriptores, terminado) se devuelve al llamador sin
+ * terminar el sink, a diferencia de emitNext.
+ */
+public final class SinkEmission {
+
+  private static final Duration CONTENTION_DEADLINE = Duration.ofMillis(1);
+
+  private SinkEmission() {
+  }
+
+  public static <T> Sinks.EmitResult tryEmitNext(Sinks.Many<T> sink, T value) {
+    Sinks.EmitResult result = sink.tryEmitNext(value);
+    if (result != Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+      return result;
+    }
+
+    // busyLooping fija su deadline al crearse: uno por emisión en conflicto, nunca compartido
+    Sinks.EmitFailureHandler retry = Sinks.EmitFailureHandler.busyLooping(CONTENTION_DEADLINE);
+    while (retry.onEmitFailure(SignalType.ON_NEXT, result)) {
+      result = sink.tryEmitNext(value);
+    }
+    return result;
+  }
+}
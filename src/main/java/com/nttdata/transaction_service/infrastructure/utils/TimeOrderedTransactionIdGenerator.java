@@ -0,0 +1,102 @@
+package com.nttdata.transaction_service.infrastructure.utils;
+
+import com.nttdata.transaction_service.infrastructure.config.ReplyRoutingProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ids de 80 bits ordenados por tiempo, en 16 caracteres Crockford base32:
+ * <pre>
+ * | 44 bits ms desde 2024-01-01 | 20 bits secuencia | 16 bits nodo |
+ * </pre>
+ * Tiempo y secuencia viven en un único AtomicLong que avanza por CAS (sin locks ni SecureRandom).
+ * Si la secuencia se agota dentro de un milisegundo, o el reloj retrocede, el valor sigue
+ * creciendo a partir del anterior: los ids de un nodo son estrictamente crecientes. El orden
+ * lexicográfico coincide con el numérico, así que los inserts caen al final del índice _id.
+ * La unicidad entre réplicas depende de que cada una tenga un nodo distinto: el nodo derivado del
+ * id de instancia es un hash de 16 bits y dos réplicas pueden coincidir.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "transaction.id.generator", havingValue = "time-ordered", matchIfMissing = true)
+public class TimeOrderedTransactionIdGenerator implements TransactionIdGenerator {
+
+  private static final long EPOCH_MILLIS = 1_704_067_200_000L; // 2024-01-01T00:00:00Z
+  private static final int SEQUENCE_BITS = 20;
+  private static final int NODE_BITS = 16;
+  private static final int NODE_MASK = (1 << NODE_BITS) - 1;
+  private static final int ID_LENGTH = 16;   // 80 bits / 5
+  private static final char[] CROCKFORD = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+  private final int nodeId;
+  private final AtomicLong state = new AtomicLong();
+
+  /**
+   * Nodo explícito (transaction.id.node-id) o derivado del id de instancia de la réplica; con
+   * transaction.id.require-node-id el nodo derivado no se acepta
+   */
+  @Autowired
+  public TimeOrderedTransactionIdGenerator(ReplyRoutingProperties replyRouting,
+                                           @Value("${transaction.id.node-id:-1}") int configuredNodeId,
+                                           @Value("${transaction.id.require-node-id:false}") boolean requireNodeId) {
+    this(resolveNodeId(replyRouting.getInstanceId(), configuredNodeId, requireNodeId));
+  }
+
+  public TimeOrderedTransactionIdGenerator(int nodeId) {
+    this.nodeId = nodeId & NODE_MASK;
+  }
+
+  @Override
+  public String nextId() {
+    long now = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+    long previous;
+    long next;
+    do {
+      previous = state.get();
+      next = now > previous ? now : previous + 1;
+    } while (!state.compareAndSet(previous, next));
+
+    return encode(next);
+  }
+
+  public int getNodeId() {
+    return nodeId;
+  }
+
+  // ========== PRIVATE HELPERS ==========
+
+  private static int resolveNodeId(String instanceId, int configuredNodeId, boolean requireNodeId) {
+    if (configuredNodeId >= 0) {
+      return configuredNodeId;
+    }
+    if (requireNodeId) {
+      throw new IllegalStateException("transaction.id.node-id es obligatorio con transaction.id.require-node-id: "
+              + "asigne un valor distinto (0-65535) a cada réplica");
+    }
+    int derived = instanceId.hashCode() & NODE_MASK;
+    log.warn("⚠️ Nodo de transactionId derivado de la instancia {}: {}. Dos réplicas pueden derivar el mismo "
+            + "nodo y generar ids repetidos; fije transaction.id.node-id por réplica", instanceId, derived);
+    return derived;
+  }
+
+  /**
+   * (tiempo+secuencia, nodo) como número de 80 bits en base32, del dígito menos significativo al más
+   */
+  private String encode(long timeAndSequence) {
+    long high = timeAndSequence >>> (Long.SIZE - NODE_BITS);
+    long low = (timeAndSequence << NODE_BITS) | nodeId;
+
+    char[] chars = new char[ID_LENGTH];
+    for (int i = ID_LENGTH - 1; i >= 0; i--) {
+      chars[i] = CROCKFORD[(int) (low & 31)];
+      low = (low >>> 5) | (high << (Long.SIZE - 5));
+      high >>>= 5;
+    }
+    return new String(chars);
+  }
+}
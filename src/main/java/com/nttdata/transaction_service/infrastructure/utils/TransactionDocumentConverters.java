@@ -0,0 +1,122 @@
+package com.nttdata.transaction_service.infrastructure.utils;
+
+import com.nttdata.transaction_service.domain.model.Transaction;
+import com.nttdata.transaction_service.domain.model.enums.TransactionStatus;
+import com.nttdata.transaction_service.domain.model.enums.TransactionType;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Conversión directa Document ↔ Transaction (sin la copia intermedia a TransactionEntity ni la
+ * reflexión del mapeo genérico). El formato es el mismo que el de TransactionEntity: amount como
+ * Decimal128 y transactionDate como fecha nativa; TransactionEntity sigue declarando los índices.
+ */
+public final class TransactionDocumentConverters {
+
+  // ========== FIELDS ==========
+
+  public static final String ID = "_id";
+  public static final String ACCOUNT_NUMBER = "accountNumber";
+  public static final String TRANSACTION_DATE = "transactionDate";
+  public static final String TRANSACTION_TYPE = "transactionType";
+  public static final String AMOUNT = "amount";
+  public static final String DESCRIPTION = "description";
+  public static final String STATUS = "status";
+  public static final String SUMMARY = "summary";
+  public static final String SUMMARY_AT = "summaryAt";
+
+  // Aporte al resumen de cuenta: PENDING → APPLYING ($inc en curso) → APPLIED. Ausente = transacción
+  // legada, cuyo $inc se aplicó al insertarla
+  public static final String SUMMARY_PENDING = "PENDING";
+  public static final String SUMMARY_APPLYING = "APPLYING";
+  public static final String SUMMARY_APPLIED = "APPLIED";
+
+  // Misma zona que los conversores JSR-310 de Spring Data, para leer igual los documentos ya guardados
+  private static final ZoneId ZONE = ZoneId.systemDefault();
+
+  private TransactionDocumentConverters() {
+  }
+
+  public static List<Converter<?, ?>> converters() {
+    return List.of(TransactionWriter.INSTANCE, TransactionReader.INSTANCE);
+  }
+
+  // ========== WRITE ==========
+
+  @WritingConverter
+  public enum TransactionWriter implements Converter<Transaction, Document> {
+    INSTANCE;
+
+    @Override
+    public Document convert(Transaction source) {
+      Document document = new Document(ID, source.getTransactionId())
+              .append(ACCOUNT_NUMBER, source.getAccountNumber());
+      // Los nulos se omiten, como en el mapeo por entidad (status ausente = transacción legada)
+      if (source.getTransactionDate() != null) {
+        document.append(TRANSACTION_DATE, Date.from(source.getTransactionDate().atZone(ZONE).toInstant()));
+      }
+      if (source.getTransactionType() != null) {
+        document.append(TRANSACTION_TYPE, source.getTransactionType().name());
+      }
+      if (source.getAmount() != null) {
+        document.append(AMOUNT, new Decimal128(source.getAmount()));
+      }
+      if (source.getDescription() != null) {
+        document.append(DESCRIPTION, source.getDescription());
+      }
+      if (source.getStatus() != null) {
+        document.append(STATUS, source.getStatus().name());
+      }
+      // Solo se insertan transacciones nuevas: su aporte al resumen aún no se aplicó
+      document.append(SUMMARY, SUMMARY_PENDING);
+      return document;
+    }
+  }
+
+  // ========== READ ==========
+
+  @ReadingConverter
+  public enum TransactionReader implements Converter<Document, Transaction> {
+    INSTANCE;
+
+    @Override
+    public Transaction convert(Document source) {
+      Date transactionDate = source.getDate(TRANSACTION_DATE);
+      String transactionType = source.getString(TRANSACTION_TYPE);
+      String status = source.getString(STATUS);
+
+      return Transaction.builder()
+              .transactionId(source.getString(ID))
+              .accountNumber(source.getString(ACCOUNT_NUMBER))
+              .transactionDate(transactionDate != null
+                      ? LocalDateTime.ofInstant(transactionDate.toInstant(), ZONE) : null)
+              .transactionType(transactionType != null ? TransactionType.valueOf(transactionType) : null)
+              .amount(readAmount(source.get(AMOUNT)))
+              .description(source.getString(DESCRIPTION))
+              .status(status != null ? TransactionStatus.valueOf(status) : null)
+              .build();
+    }
+  }
+
+  /**
+   * Decimal128 en documentos nuevos; String en los anteriores a la migración de montos
+   */
+  public static BigDecimal readAmount(Object raw) {
+    if (raw == null) {
+      return null;
+    }
+    if (raw instanceof Decimal128 decimal) {
+      return decimal.bigDecimalValue();
+    }
+    return new BigDecimal(raw.toString());
+  }
+}
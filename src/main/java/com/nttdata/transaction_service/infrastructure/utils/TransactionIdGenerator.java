@@ -0,0 +1,10 @@
+package com.nttdata.transaction_service.infrastructure.utils;
+
+/**
+ * Genera los transactionId (también _id en Mongo y key de correlación en Kafka).
+ * Implementación según transaction.id.generator: time-ordered (por defecto) o uuid.
+ */
+public interface TransactionIdGenerator {
+
+  String nextId();
+}
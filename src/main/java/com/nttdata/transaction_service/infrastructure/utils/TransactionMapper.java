@@ -1,23 +1,29 @@
 package com.nttdata.transaction_service.infrastructure.utils;
 
 import com.ettdata.avro.AccountValidationResponse;
+import com.nttdata.transaction_service.domain.dto.BatchTransactionResponse;
 import com.nttdata.transaction_service.domain.dto.TransactionListResponse;
+import com.nttdata.transaction_service.domain.dto.TransactionPageResponse;
 import com.nttdata.transaction_service.domain.dto.TransactionResponse;
+import com.nttdata.transaction_service.domain.model.OutboxMessage;
 import com.nttdata.transaction_service.domain.model.Transaction;
+import com.nttdata.transaction_service.domain.model.enums.TransactionStatus;
 import com.nttdata.transaction_service.domain.model.enums.TransactionType;
+import com.nttdata.transaction_service.infrastructure.dto.BatchTransactionItem;
 import com.nttdata.transaction_service.infrastructure.dto.DepositRequest;
 import com.nttdata.transaction_service.infrastructure.dto.TransferRequest;
 import com.nttdata.transaction_service.infrastructure.dto.WithdrawalRequest;
 import com.nttdata.transaction_service.infrastructure.entity.TransactionEntity;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Component
+@RequiredArgsConstructor
 public class TransactionMapper {
 
   // ========== CONSTANTS ==========
@@ -27,6 +33,8 @@ public class TransactionMapper {
   private static final String TRANSFER_TO_PREFIX = "Transfer to ";
   private static final String TRANSFER_FROM_PREFIX = "Transfer from ";
 
+  private final TransactionIdGenerator idGenerator;
+
   // ========== ENTITY ↔ DOMAIN ==========
 
   /**
@@ -42,6 +50,7 @@ public class TransactionMapper {
             .amount(entity.getAmount())
             .transactionDate(entity.getTransactionDate())
             .description(entity.getDescription())
+            .status(entity.getStatus())
             .build();
   }
 
@@ -58,6 +67,7 @@ public class TransactionMapper {
             .amount(domain.getAmount())
             .transactionDate(domain.getTransactionDate())
             .description(domain.getDescription())
+            .status(domain.getStatus())
             .build();
   }
 
@@ -100,6 +110,7 @@ public class TransactionMapper {
             .amount(request.getAmount())
             .transactionDate(LocalDateTime.now())
             .description(getOrDefault(request.getDescription(), DEFAULT_DEPOSIT_DESC))
+            .status(TransactionStatus.PENDING)
             .build();
   }
 
@@ -114,6 +125,7 @@ public class TransactionMapper {
             .amount(request.getAmount().negate()) // Negativo para retiros
             .transactionDate(LocalDateTime.now())
             .description(getOrDefault(request.getDescription(), DEFAULT_WITHDRAWAL_DESC))
+            .status(TransactionStatus.PENDING)
             .build();
   }
 
@@ -129,6 +141,7 @@ public class TransactionMapper {
             .transactionDate(LocalDateTime.now())
             .description(getOrDefault(request.getDescription(),
                     TRANSFER_TO_PREFIX + request.getTargetNumberAccount()))
+            .status(TransactionStatus.PENDING)
             .build();
   }
 
@@ -144,6 +157,56 @@ public class TransactionMapper {
             .transactionDate(LocalDateTime.now())
             .description(getOrDefault(request.getDescription(),
                     TRANSFER_FROM_PREFIX + request.getSourceNumberAccount()))
+            .status(TransactionStatus.PENDING)
+            .build();
+  }
+
+  /**
+   * Solicitud de validación del outbox; en transferencias la transacción es el débito
+   */
+  public OutboxMessage toOutboxMessage(Transaction transaction, String targetAccountNumber) {
+    return OutboxMessage.builder()
+            .transactionId(transaction.getTransactionId())
+            .accountNumber(transaction.getAccountNumber())
+            .targetAccountNumber(targetAccountNumber)
+            .transactionType(transaction.getTransactionType())
+            .amount(transaction.getAmount().abs())
+            .build();
+  }
+
+  // ========== BATCH ITEM → REQUEST ==========
+
+  /**
+   * Convierte un elemento del lote a DepositRequest
+   */
+  public DepositRequest toDepositRequest(BatchTransactionItem item) {
+    return DepositRequest.builder()
+            .numberAccount(item.getNumberAccount())
+            .amount(item.getAmount())
+            .description(item.getDescription())
+            .build();
+  }
+
+  /**
+   * Convierte un elemento del lote a WithdrawalRequest
+   */
+  public WithdrawalRequest toWithdrawalRequest(BatchTransactionItem item) {
+    return WithdrawalRequest.builder()
+            .numberAccount(item.getNumberAccount())
+            .amount(item.getAmount())
+            .description(item.getDescription())
+            .build();
+  }
+
+  /**
+   * Convierte un elemento del lote a TransferRequest
+   */
+  public TransferRequest toTransferRequest(BatchTransactionItem item) {
+    return TransferRequest.builder()
+            .sourceNumberAccount(item.getSourceNumberAccount())
+            .targetNumberAccount(item.getTargetNumberAccount())
+            .amount(item.getAmount())
+            .description(item.getDescription())
             .build();
   }
 
@@ -184,6 +247,51 @@ public class TransactionMapper {
             .build();
   }
 
+  /**
+   * Respuesta 202 del modo asíncrono: la transacción quedó persistida y su resultado se consulta
+   * en /api/transactions/status/{transactionId}
+   */
+  public TransactionResponse toAcceptedResponse(Transaction transaction) {
+    return TransactionResponse.builder()
+            .codResponse(202)
+            .status(TransactionStatus.PENDING.name())
+            .messageResponse("Transacción aceptada, pendiente de validación")
+            .transactionId(transaction.getTransactionId())
+            .accountNumber(transaction.getAccountNumber())
+            .amount(transaction.getAmount())
+            .transactionType(transaction.getTransactionType())
+            .description(transaction.getDescription())
+            .timestamp(transaction.getTransactionDate())
+            .codEntity(transaction.getTransactionId()) // Legacy
+            .build();
+  }
+
+  /**
+   * Respuesta a partir del estado persistido (sin el mensaje original de account-service)
+   */
+  public TransactionResponse toStatusResponse(Transaction transaction) {
+    if (transaction.getStatus() == null) {
+      return toSuccessResponse(transaction);
+    }
+
+    return switch (transaction.getStatus()) {
+      case PENDING -> toAcceptedResponse(transaction);
+      case COMPLETED -> toSuccessResponse(transaction);
+      case REJECTED -> toRejectedResponse(transaction, 422, "Transacción rechazada por account-service");
+      case TIMED_OUT -> TransactionResponse.builder()
+              .codResponse(504)
+              .status(TransactionStatus.TIMED_OUT.name())
+              .messageResponse("Sin respuesta de account-service dentro del tiempo límite")
+              .transactionId(transaction.getTransactionId())
+              .accountNumber(transaction.getAccountNumber())
+              .amount(transaction.getAmount())
+              .transactionType(transaction.getTransactionType())
+              .timestamp(transaction.getTransactionDate())
+              .codEntity(transaction.getTransactionId()) // Legacy
+              .build();
+    };
+  }
+
   /**
    * Crea respuesta de error genérica
    */
@@ -233,6 +341,68 @@ public class TransactionMapper {
             .build();
   }
 
+  /**
+   * Convierte una página leída con un registro de más (size + 1) a TransactionPageResponse
+   */
+  public TransactionPageResponse toTransactionPageResponse(List<Transaction> rows, int pageSize) {
+    boolean hasMore = rows.size() > pageSize;
+    List<Transaction> data = hasMore ? rows.subList(0, pageSize) : rows;
+
+    TransactionPageResponse.TransactionPageResponseBuilder builder = TransactionPageResponse.builder()
+            .data(data)
+            .hasMore(hasMore);
+
+    if (hasMore) {
+      Transaction last = data.get(data.size() - 1);
+      builder.nextTransactionDate(last.getTransactionDate())
+              .nextTransactionId(last.getTransactionId());
+    }
+
+    return builder.build();
+  }
+
+  /**
+   * Crea una página vacía con error
+   */
+  public TransactionPageResponse toTransactionPageError(String errorMessage) {
+    return TransactionPageResponse.builder()
+            .data(Collections.emptyList())
+            .hasMore(false)
+            .Error(errorMessage)
+            .build();
+  }
+
+  // ========== BATCH RESPONSES ==========
+
+  /**
+   * Agrupa los resultados individuales del lote (en el orden de los items)
+   */
+  public BatchTransactionResponse toBatchResponse(List<TransactionResponse> results) {
+    int succeeded = (int) results.stream()
+            .filter(result -> result.getCodResponse() != null && result.getCodResponse() == 200)
+            .count();
+
+    return BatchTransactionResponse.builder()
+            .codResponse(200)
+            .messageResponse("Lote procesado")
+            .total(results.size())
+            .succeeded(succeeded)
+            .failed(results.size() - succeeded)
+            .results(results)
+            .build();
+  }
+
+  /**
+   * Crea respuesta de error para un lote rechazado completo
+   */
+  public BatchTransactionResponse toBatchErrorResponse(int statusCode, String errorMessage) {
+    return BatchTransactionResponse.builder()
+            .codResponse(statusCode)
+            .messageResponse(errorMessage)
+            .results(Collections.emptyList())
+            .build();
+  }
+
   // ========== LEGACY METHODS (Deprecated) ==========
 
   /**
@@ -256,7 +426,7 @@ public class TransactionMapper {
    * Genera un ID único para transacciones
    */
   private String generateTransactionId() {
-    return UUID.randomUUID().toString();
+    return idGenerator.nextId();
   }
 
   /**
@@ -0,0 +1,19 @@
+package com.nttdata.transaction_service.infrastructure.utils;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * UUID v4 aleatorio (formato anterior, 36 caracteres)
+ */
+@Component
+@ConditionalOnProperty(name = "transaction.id.generator", havingValue = "uuid")
+public class UuidTransactionIdGenerator implements TransactionIdGenerator {
+
+  @Override
+  public String nextId() {
+    return UUID.randomUUID().toString();
+  }
+}
@@ -3,7 +3,7 @@ package com.nttdata.transaction_service;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "transaction.reply.instance-id=test-instance")
 class TransactionServiceApplicationTests {
 
 	@Test
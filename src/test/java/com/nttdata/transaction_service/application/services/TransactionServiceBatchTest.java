@@ -0,0 +1,186 @@
+package com.nttdata.transaction_service.application.services;
+
+import com.ettdata.avro.AccountValidationResponse;
+import com.nttdata.transaction_service.application.port.out.AccountSummaryOutputPort;
+import com.nttdata.transaction_service.application.port.out.AccountValidationOutputPort;
+import com.nttdata.transaction_service.application.port.out.TransactionRepositoryOutputPort;
+import com.nttdata.transaction_service.domain.dto.BatchTransactionResponse;
+import com.nttdata.transaction_service.domain.dto.TransactionResponse;
+import com.nttdata.transaction_service.domain.model.Transaction;
+import com.nttdata.transaction_service.domain.model.enums.TransactionStatus;
+import com.nttdata.transaction_service.domain.model.enums.TransactionType;
+import com.nttdata.transaction_service.infrastructure.config.OutboxProperties;
+import com.nttdata.transaction_service.infrastructure.dto.BatchTransactionItem;
+import com.nttdata.transaction_service.infrastructure.dto.BatchTransactionRequest;
+import com.nttdata.transaction_service.infrastructure.handler.AccountEventBroadcaster;
+import com.nttdata.transaction_service.infrastructure.handler.AccountSequencer;
+import com.nttdata.transaction_service.infrastructure.handler.AccountValidationCircuitBreaker;
+import com.nttdata.transaction_service.infrastructure.handler.AdmissionLimiter;
+import com.nttdata.transaction_service.infrastructure.handler.AsyncResultRegistry;
+import com.nttdata.transaction_service.infrastructure.handler.TransactionStatusUpdater;
+import com.nttdata.transaction_service.infrastructure.metrics.TransactionMetrics;
+import com.nttdata.transaction_service.infrastructure.utils.TransactionMapper;
+import com.nttdata.transaction_service.infrastructure.utils.TransactionValidator;
+import com.nttdata.transaction_service.infrastructure.utils.UuidTransactionIdGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * /batch pasa cada validación por los mismos controles que las operaciones individuales
+ */
+class TransactionServiceBatchTest {
+
+    private static final Duration ACCOUNT_LATENCY = Duration.ofMillis(100);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final TransactionRepositoryOutputPort repository = mock(TransactionRepositoryOutputPort.class);
+    private final AccountValidationOutputPort accountValidation = mock(AccountValidationOutputPort.class);
+    private final TransactionStatusUpdater statusUpdater = mock(TransactionStatusUpdater.class);
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        when(repository.saveAll(anyList()))
+                .thenAnswer(invocation -> Flux.fromIterable(invocation.<List<Transaction>>getArgument(0)));
+        when(accountValidation.sendDepositRequest(anyString(), anyString(), any(BigDecimal.class)))
+                .thenAnswer(invocation -> accountCall(invocation.getArgument(0), invocation.getArgument(1)));
+    }
+
+    @Test
+    void batchItemsWaitForAdmissionInsteadOfBeingRejected() {
+        AdmissionLimiter admissionLimiter = new AdmissionLimiter(registry, 2, 1, 2, 0.9, 2000, 1);
+        TransactionService service = service(admissionLimiter, circuitBreaker(50));
+
+        BatchTransactionResponse response = service.processBatch(deposits(10)).block(Duration.ofSeconds(5));
+
+        assertThat(response).isNotNull();
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(2);
+        // Los tramos ya persistidos esperan capacidad: ninguno termina en 429 ni en REJECTED
+        assertThat(response.getSucceeded()).isEqualTo(10);
+        assertThat(response.getResults())
+                .extracting(TransactionResponse::getCodResponse)
+                .doesNotContain(429);
+        assertThat(admissionLimiter.getInFlight()).isZero();
+        verify(statusUpdater, never()).submit(anyList(), eq(TransactionStatus.REJECTED));
+    }
+
+    @Test
+    void batchValidationFailuresOpenTheCircuitBreaker() {
+        when(accountValidation.sendDepositRequest(anyString(), anyString(), any(BigDecimal.class)))
+                .thenReturn(Mono.error(new IllegalStateException("Kafka no disponible")));
+        AccountValidationCircuitBreaker circuitBreaker = circuitBreaker(5);
+        TransactionService service = service(new AdmissionLimiter(registry, 64, 8, 1024, 0.9, 2000, 1),
+                circuitBreaker);
+
+        BatchTransactionResponse response = service.processBatch(deposits(10)).block(Duration.ofSeconds(5));
+
+        assertThat(response).isNotNull();
+        assertThat(response.getResults())
+                .extracting(TransactionResponse::getCodResponse)
+                .containsOnly(503);
+        assertThat(circuitBreaker.allowsCalls()).isFalse();
+        // Abierto el circuito, el resto del lote ya no llega a account-service
+        verify(accountValidation, times(5)).sendDepositRequest(anyString(), anyString(), any(BigDecimal.class));
+
+        BatchTransactionResponse next = service.processBatch(deposits(3)).block(Duration.ofSeconds(5));
+        assertThat(next).isNotNull();
+        assertThat(next.getCodResponse()).isEqualTo(503);
+    }
+
+    @Test
+    void batchWithdrawalsFromOneAccountAreSequenced() {
+        when(accountValidation.sendWithdrawRequest(anyString(), anyString(), any(BigDecimal.class)))
+                .thenAnswer(invocation -> accountCall(invocation.getArgument(0), invocation.getArgument(1)));
+        TransactionService service = service(new AdmissionLimiter(registry, 64, 8, 1024, 0.9, 2000, 1),
+                circuitBreaker(50));
+
+        BatchTransactionResponse response = service.processBatch(new BatchTransactionRequest(
+                        IntStream.range(0, 5)
+                                .mapToObj(i -> BatchTransactionItem.builder()
+                                        .transactionType(TransactionType.WITHDRAWAL)
+                                        .numberAccount("ACC0000001")
+                                        .amount(new BigDecimal("10.00"))
+                                        .build())
+                                .toList()))
+                .block(Duration.ofSeconds(5));
+
+        assertThat(response).isNotNull();
+        assertThat(response.getSucceeded()).isEqualTo(5);
+        assertThat(maxInFlight.get()).isEqualTo(1);
+    }
+
+    // ========== HELPERS ==========
+
+    private TransactionService service(AdmissionLimiter admissionLimiter,
+                                       AccountValidationCircuitBreaker circuitBreaker) {
+        return new TransactionService(
+                repository,
+                new TransactionValidator(),
+                new TransactionMapper(new UuidTransactionIdGenerator()),
+                accountValidation,
+                mock(AccountSummaryOutputPort.class),
+                new TransactionMetrics(registry),
+                admissionLimiter,
+                circuitBreaker,
+                new OutboxProperties(),
+                statusUpdater,
+                mock(AsyncResultRegistry.class),
+                mock(AccountEventBroadcaster.class),
+                new AccountSequencer(registry, true, 4));
+    }
+
+    private AccountValidationCircuitBreaker circuitBreaker(int minimumNumberOfCalls) {
+        return new AccountValidationCircuitBreaker(registry, 50, 100, 60_000,
+                minimumNumberOfCalls, minimumNumberOfCalls, 60, 1);
+    }
+
+    /**
+     * account-service con latencia fija; registra las validaciones simultáneas
+     */
+    private Mono<AccountValidationResponse> accountCall(String transactionId, String accountNumber) {
+        return Mono.defer(() -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    return Mono.delay(ACCOUNT_LATENCY);
+                })
+                .map(tick -> AccountValidationResponse.newBuilder()
+                        .setTransactionId(transactionId)
+                        .setAccountNumber(accountNumber)
+                        .setCodResponse(200)
+                        .setMessageResponse("OK")
+                        .build())
+                // Antes de propagar la respuesta: quien espera admisión arranca al liberarse el permiso
+                .doOnTerminate(inFlight::decrementAndGet);
+    }
+
+    private static BatchTransactionRequest deposits(int count) {
+        return new BatchTransactionRequest(IntStream.range(0, count)
+                .mapToObj(i -> BatchTransactionItem.builder()
+                        .transactionType(TransactionType.DEPOSIT)
+                        .numberAccount(String.format("ACC%07d", i))
+                        .amount(new BigDecimal("10.00"))
+                        .build())
+                .toList());
+    }
+}
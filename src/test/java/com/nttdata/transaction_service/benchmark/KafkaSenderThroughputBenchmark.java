@@ -0,0 +1,244 @@
+package com.nttdata.transaction_service.benchmark;
+
+import com.ettdata.avro.AccountValidationRequest;
+import com.ettdata.avro.AccountValidationResponse;
+import com.nttdata.transaction_service.application.port.out.AccountValidationOutputPort;
+import com.nttdata.transaction_service.infrastructure.adapter.AccountValidationRecordFactory;
+import com.nttdata.transaction_service.infrastructure.adapter.AccountValidationResponseDecoder;
+import com.nttdata.transaction_service.infrastructure.adapter.KafkaAccountValidationConsumer;
+import com.nttdata.transaction_service.infrastructure.adapter.KafkaAccountValidationProducer;
+import com.nttdata.transaction_service.infrastructure.adapter.ReactiveAccountValidationProducer;
+import com.nttdata.transaction_service.infrastructure.config.AmountEncodingProperties;
+import com.nttdata.transaction_service.infrastructure.config.KafkaTopicProperties;
+import com.nttdata.transaction_service.infrastructure.config.ReplyRoutingProperties;
+import com.nttdata.transaction_service.infrastructure.handler.PendingResponseHandler;
+import com.nttdata.transaction_service.infrastructure.metrics.TransactionMetrics;
+import io.confluent.kafka.serializers.KafkaAvroDeserializer;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.BatchAcknowledgingMessageListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderOptions;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput de solicitud/respuesta con KafkaTemplate frente a reactor-kafka KafkaSender,
+ * contra un broker embebido y un account-service simulado que responde de inmediato:
+ * <pre>
+ * mvn test -Dtest=KafkaSenderThroughputBenchmark -Dbenchmark.kafka=true
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark.kafka", matches = "true")
+class KafkaSenderThroughputBenchmark {
+
+    private static final String REQUEST_TOPIC = "account-validation-request";
+    private static final String RESPONSE_TOPIC = "account-validation-response";
+    private static final String REGISTRY_URL = "mock://sender-benchmark";
+    private static final int PARTITIONS = 4;
+    private static final int WARMUP_REQUESTS = 2_000;
+    private static final int REQUESTS = 20_000;
+    private static final int CONCURRENCY = 512;
+
+    private static EmbeddedKafkaBroker broker;
+    private static final List<KafkaMessageListenerContainer<?, ?>> containers = new ArrayList<>();
+
+    @BeforeAll
+    static void startBroker() {
+        broker = new EmbeddedKafkaKraftBroker(1, PARTITIONS, REQUEST_TOPIC, RESPONSE_TOPIC);
+        broker.afterPropertiesSet();
+        startAccountServiceEcho();
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        containers.forEach(KafkaMessageListenerContainer::stop);
+        if (broker != null) {
+            broker.destroy();
+        }
+    }
+
+    @Test
+    void compareSenders() {
+        PendingResponseHandler templateHandler = new PendingResponseHandler(30, 100, 512);
+        KafkaAccountValidationProducer templateProducer = new KafkaAccountValidationProducer(
+                new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(producerProps())),
+                templateHandler,
+                recordFactory("template"),
+                new TransactionMetrics(new SimpleMeterRegistry()));
+        startReplyConsumer("template", templateHandler);
+
+        PendingResponseHandler reactiveHandler = new PendingResponseHandler(30, 100, 512);
+        KafkaSender<String, AccountValidationRequest> sender = KafkaSender.create(
+                SenderOptions.<String, AccountValidationRequest>create(reactiveProducerProps())
+                        .maxInFlight(1024)
+                        .stopOnError(false));
+        ReactiveAccountValidationProducer reactiveProducer = new ReactiveAccountValidationProducer(
+                sender,
+                reactiveHandler,
+                recordFactory("reactive"),
+                new TransactionMetrics(new SimpleMeterRegistry()));
+        startReplyConsumer("reactive", reactiveHandler);
+
+        try {
+            double templateRate = run("template", templateProducer, templateHandler);
+            double reactiveRate = run("reactive", reactiveProducer, reactiveHandler);
+
+            System.out.printf("reactive/template = %.2fx%n", reactiveRate / templateRate);
+        } finally {
+            reactiveProducer.shutdown();
+            sender.close();
+            templateHandler.shutdown();
+            reactiveHandler.shutdown();
+        }
+    }
+
+    // ========== HELPERS ==========
+
+    private double run(String name, AccountValidationOutputPort producer, PendingResponseHandler handler) {
+        send(name + "-warmup", producer, WARMUP_REQUESTS);
+
+        long start = System.nanoTime();
+        long completed = send(name, producer, REQUESTS);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        double rate = completed / seconds;
+
+        System.out.printf("%-9s %,d solicitudes en %.2f s → %,.0f req/s (concurrencia=%d, timeouts=%d)%n",
+                name, completed, seconds, rate, CONCURRENCY, handler.getExpiredCount());
+
+        assertThat(completed).isEqualTo(REQUESTS);
+        assertThat(handler.getPendingCount()).isZero();
+        return rate;
+    }
+
+    private long send(String prefix, AccountValidationOutputPort producer, int requests) {
+        Long completed = Flux.range(0, requests)
+                .flatMap(i -> producer.sendDepositRequest(
+                        prefix + "-" + i, "ACC" + (100_000 + i % 1_000), BigDecimal.TEN), CONCURRENCY)
+                .count()
+                .block(Duration.ofMinutes(5));
+        return completed != null ? completed : 0;
+    }
+
+    private static AccountValidationRecordFactory recordFactory(String instanceId) {
+        KafkaTopicProperties topics = new KafkaTopicProperties();
+        topics.setAccountValidationRequest(REQUEST_TOPIC);
+        topics.setAccountValidationResponse(RESPONSE_TOPIC);
+
+        ReplyRoutingProperties replyRouting = new ReplyRoutingProperties();
+        replyRouting.setInstanceId(instanceId);
+        return new AccountValidationRecordFactory(topics, replyRouting, new AmountEncodingProperties());
+    }
+
+    private static void startReplyConsumer(String instanceId, PendingResponseHandler handler) {
+        TransactionMetrics metrics = new TransactionMetrics(new SimpleMeterRegistry());
+        AccountValidationResponseDecoder decoder = new AccountValidationResponseDecoder(Map.of(
+                "schema.registry.url", REGISTRY_URL,
+                "specific.avro.reader", true));
+
+        ReplyRoutingProperties replyRouting = new ReplyRoutingProperties();
+        replyRouting.setInstanceId(instanceId);
+        KafkaAccountValidationConsumer consumer = new KafkaAccountValidationConsumer(
+                handler, replyRouting, decoder, metrics);
+
+        startContainer(RESPONSE_TOPIC, "transaction-service-group-" + instanceId,
+                (BatchAcknowledgingMessageListener<String, byte[]>)
+                        consumer::consumeAccountValidationResponses);
+    }
+
+    /**
+     * Simula account-service: responde en el topic compartido devolviendo el header de instancia
+     */
+    private static void startAccountServiceEcho() {
+        KafkaTemplate<String, Object> template =
+                new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(producerProps()));
+
+        startContainer(REQUEST_TOPIC, "account-service",
+                (MessageListener<String, AccountValidationRequest>) record -> {
+                    AccountValidationRequest request = record.value();
+                    ProducerRecord<String, Object> reply = new ProducerRecord<>(
+                            RESPONSE_TOPIC, request.getTransactionId().toString(),
+                            AccountValidationResponse.newBuilder()
+                                    .setTransactionId(request.getTransactionId())
+                                    .setAccountNumber(request.getAccountNumber())
+                                    .setCodResponse(200)
+                                    .setMessageResponse("OK")
+                                    .build());
+                    reply.headers()
+                            .add(record.headers().lastHeader(ReplyRoutingProperties.REPLY_INSTANCE_HEADER))
+                            .add(record.headers().lastHeader(KafkaHeaders.CORRELATION_ID));
+                    template.send(reply);
+                });
+    }
+
+    private static void startContainer(String topic, String groupId, Object listener) {
+        Map<String, Object> props = KafkaTestUtils.consumerProps(groupId, "false", broker);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        // El listener de respuestas recibe bytes y decodifica bajo demanda
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG,
+                listener instanceof BatchAcknowledgingMessageListener<?, ?>
+                        ? ByteArrayDeserializer.class
+                        : KafkaAvroDeserializer.class);
+        props.put("schema.registry.url", REGISTRY_URL);
+        props.put("specific.avro.reader", true);
+
+        ContainerProperties containerProperties = new ContainerProperties(topic);
+        containerProperties.setMessageListener(listener);
+        if (listener instanceof BatchAcknowledgingMessageListener<?, ?>) {
+            containerProperties.setAckMode(ContainerProperties.AckMode.MANUAL);
+        }
+
+        KafkaMessageListenerContainer<String, Object> container = new KafkaMessageListenerContainer<>(
+                new DefaultKafkaConsumerFactory<>(props), containerProperties);
+        container.start();
+        containers.add(container);
+        ContainerTestUtils.waitForAssignment(container, broker.getPartitionsPerTopic());
+    }
+
+    private static Map<String, Object> producerProps() {
+        Map<String, Object> props = KafkaTestUtils.producerProps(broker);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, KafkaAvroSerializer.class);
+        props.put("schema.registry.url", REGISTRY_URL);
+        return props;
+    }
+
+    /**
+     * Mismos ajustes que ReactiveKafkaSenderConfig por defecto
+     */
+    private static Map<String, Object> reactiveProducerProps() {
+        Map<String, Object> props = producerProps();
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, 65536);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        return props;
+    }
+}
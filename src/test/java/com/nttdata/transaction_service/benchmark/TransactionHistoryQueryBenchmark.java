@@ -0,0 +1,134 @@
+package com.nttdata.transaction_service.benchmark;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import com.nttdata.transaction_service.domain.model.enums.TransactionType;
+import com.nttdata.transaction_service.infrastructure.config.MongoIndexInitializer;
+import com.nttdata.transaction_service.infrastructure.entity.TransactionEntity;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Latencia de la consulta de historial sobre 1M de documentos, sin y con el índice
+ * account_date_id_idx. Requiere un MongoDB real:
+ * <pre>
+ * mvn test -Dtest=TransactionHistoryQueryBenchmark -Dbenchmark.mongo.uri=mongodb://localhost:27017
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark.mongo.uri", matches = ".+")
+class TransactionHistoryQueryBenchmark {
+
+    private static final String DATABASE = "bd-transaction-benchmark";
+    private static final int DOCUMENTS = 1_000_000;
+    private static final int ACCOUNTS = 2_000;
+    private static final int BATCH_SIZE = 10_000;
+    private static final int SAMPLES = 200;
+    private static final int PAGE_SIZE = 50;
+
+    private static MongoClient client;
+    private static ReactiveMongoTemplate template;
+
+    @BeforeAll
+    static void seed() {
+        client = MongoClients.create(System.getProperty("benchmark.mongo.uri"));
+        template = new ReactiveMongoTemplate(client, DATABASE);
+        template.dropCollection(TransactionEntity.class).block();
+
+        LocalDateTime start = LocalDateTime.now().minusYears(2);
+        Flux.range(0, DOCUMENTS / BATCH_SIZE)
+                .concatMap(batch -> {
+                    List<TransactionEntity> entities = new ArrayList<>(BATCH_SIZE);
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < BATCH_SIZE; i++) {
+                        entities.add(TransactionEntity.builder()
+                                .transactionId(UUID.randomUUID().toString())
+                                .accountNumber(accountNumber(random.nextInt(ACCOUNTS)))
+                                .transactionDate(start.plusSeconds(random.nextLong(63_000_000L)))
+                                .transactionType(TransactionType.DEPOSIT)
+                                .amount(BigDecimal.valueOf(random.nextInt(1, 100_000), 2))
+                                .description("benchmark")
+                                .build());
+                    }
+                    return template.insert(entities, TransactionEntity.class).then();
+                })
+                .blockLast();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (template != null) {
+            template.dropCollection(TransactionEntity.class).block();
+        }
+        if (client != null) {
+            client.close();
+        }
+    }
+
+    @Test
+    void historyLatencyBeforeAndAfterIndex() {
+        template.indexOps(TransactionEntity.class).dropAllIndexes().block();
+        long[] fullWithoutIndex = measure(false);
+        long[] pageWithoutIndex = measure(true);
+
+        new MongoIndexInitializer(template).ensureIndexes(TransactionEntity.class).block();
+        long[] fullWithIndex = measure(false);
+        long[] pageWithIndex = measure(true);
+
+        report("historial completo sin índice", fullWithoutIndex);
+        report("historial completo con índice", fullWithIndex);
+        report("página de " + PAGE_SIZE + " sin índice", pageWithoutIndex);
+        report("página de " + PAGE_SIZE + " con índice", pageWithIndex);
+    }
+
+    // ========== HELPERS ==========
+
+    private long[] measure(boolean paged) {
+        long[] latencies = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            Query query = Query.query(Criteria.where("accountNumber")
+                            .is(accountNumber(ThreadLocalRandom.current().nextInt(ACCOUNTS))))
+                    .with(Sort.by(Sort.Order.desc("transactionDate"), Sort.Order.desc("transactionId")));
+            if (paged) {
+                query.limit(PAGE_SIZE);
+            }
+
+            long start = System.nanoTime();
+            template.find(query, TransactionEntity.class).then().block();
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static void report(String label, long[] sortedLatencies) {
+        System.out.printf("%-32s p50=%8.2f ms  p99=%8.2f ms  max=%8.2f ms%n",
+                label,
+                percentile(sortedLatencies, 0.50),
+                percentile(sortedLatencies, 0.99),
+                sortedLatencies[sortedLatencies.length - 1] / 1_000_000.0);
+    }
+
+    private static double percentile(long[] sortedLatencies, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private static String accountNumber(int index) {
+        return String.format("10000%05d", index);
+    }
+}
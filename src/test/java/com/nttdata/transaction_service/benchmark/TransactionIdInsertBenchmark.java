@@ -0,0 +1,108 @@
+package com.nttdata.transaction_service.benchmark;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import com.nttdata.transaction_service.domain.model.enums.TransactionStatus;
+import com.nttdata.transaction_service.domain.model.enums.TransactionType;
+import com.nttdata.transaction_service.infrastructure.entity.TransactionEntity;
+import com.nttdata.transaction_service.infrastructure.utils.TimeOrderedTransactionIdGenerator;
+import com.nttdata.transaction_service.infrastructure.utils.TransactionIdGenerator;
+import com.nttdata.transaction_service.infrastructure.utils.UuidTransactionIdGenerator;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Tasa de inserción y tamaño del índice _id con UUID aleatorio frente a ids ordenados por
+ * tiempo, a medida que la colección crece. Requiere un MongoDB real:
+ * <pre>
+ * mvn test -Dtest=TransactionIdInsertBenchmark -Dbenchmark.mongo.uri=mongodb://localhost:27017
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark.mongo.uri", matches = ".+")
+class TransactionIdInsertBenchmark {
+
+    private static final String DATABASE = "bd-transaction-benchmark";
+    private static final int DOCUMENTS = 2_000_000;
+    private static final int WINDOW = 250_000;
+    private static final int BATCH_SIZE = 1_000;
+    private static final int CONCURRENCY = 8;
+    private static final int ACCOUNTS = 2_000;
+
+    private static MongoClient client;
+    private static ReactiveMongoTemplate template;
+
+    @BeforeAll
+    static void connect() {
+        client = MongoClients.create(System.getProperty("benchmark.mongo.uri"));
+        template = new ReactiveMongoTemplate(client, DATABASE);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (template != null) {
+            template.dropCollection("ids_uuid").block();
+            template.dropCollection("ids_time_ordered").block();
+        }
+        if (client != null) {
+            client.close();
+        }
+    }
+
+    @Test
+    void insertRateUuidVersusTimeOrdered() {
+        insertAndReport("ids_uuid", new UuidTransactionIdGenerator());
+        insertAndReport("ids_time_ordered", new TimeOrderedTransactionIdGenerator(1));
+    }
+
+    // ========== HELPERS ==========
+
+    private void insertAndReport(String collection, TransactionIdGenerator generator) {
+        template.dropCollection(collection).block();
+        System.out.printf("%n%s%n", collection);
+
+        for (int inserted = 0; inserted < DOCUMENTS; inserted += WINDOW) {
+            long start = System.nanoTime();
+            Flux.range(0, WINDOW / BATCH_SIZE)
+                    .flatMap(batch -> template.insert(batch(generator), collection).then(), CONCURRENCY)
+                    .blockLast();
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            System.out.printf("  %,9d → %,9d docs: %,10.0f inserts/s%n",
+                    inserted, inserted + WINDOW, WINDOW / seconds);
+        }
+
+        Document stats = template.executeCommand(new Document("collStats", collection)).block();
+        Document indexSizes = stats.get("indexSizes", Document.class);
+        System.out.printf("  avgObjSize=%s B  índice _id=%,d KB%n",
+                stats.get("avgObjSize"),
+                ((Number) indexSizes.get("_id_")).longValue() / 1024);
+    }
+
+    private static List<TransactionEntity> batch(TransactionIdGenerator generator) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<TransactionEntity> entities = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            entities.add(TransactionEntity.builder()
+                    .transactionId(generator.nextId())
+                    .accountNumber(String.format("10000%05d", random.nextInt(ACCOUNTS)))
+                    .transactionDate(LocalDateTime.now())
+                    .transactionType(TransactionType.DEPOSIT)
+                    .amount(BigDecimal.valueOf(random.nextInt(1, 100_000), 2))
+                    .description("benchmark")
+                    .status(TransactionStatus.COMPLETED)
+                    .build());
+        }
+        return entities;
+    }
+}
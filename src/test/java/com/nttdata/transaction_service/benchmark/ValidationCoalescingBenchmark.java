@@ -0,0 +1,94 @@
+package com.nttdata.transaction_service.benchmark;
+
+import com.nttdata.transaction_service.infrastructure.handler.ValidationCoalescer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Mensajes de validación ahorrados por la ventana de coalescencia en una ráfaga tipo nómina
+ * (muchas operaciones sobre pocas cuentas), sin broker: el flusher solo cuenta mensajes.
+ * La ventana 0 con max-items=1 es la línea base de un mensaje por operación.
+ * <pre>
+ * mvn test -Dtest=ValidationCoalescingBenchmark -Dbenchmark.coalescing=true
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark.coalescing", matches = "true")
+class ValidationCoalescingBenchmark {
+
+    private static final int HOT_ACCOUNTS = 50;
+    private static final int PRODUCERS = 8;
+    private static final int OPERATIONS_PER_PRODUCER = 250_000;
+    private static final int MAX_ITEMS = 64;
+    private static final BigDecimal AMOUNT = new BigDecimal("1500.00");
+
+    @Test
+    void messagesSavedByWindowSize() throws InterruptedException {
+        run("sin coalescencia", 0, 1);
+        for (long windowMillis : new long[] {1, 2, 5}) {
+            run("ventana " + windowMillis + " ms", windowMillis, MAX_ITEMS);
+        }
+    }
+
+    // ========== HELPERS ==========
+
+    private void run(String label, long windowMillis, int maxItems) throws InterruptedException {
+        AtomicLong messages = new AtomicLong();
+        AtomicLong delivered = new AtomicLong();
+        Scheduler scheduler = Schedulers.newParallel("coalescing-benchmark");
+        ValidationCoalescer coalescer = new ValidationCoalescer(windowMillis, maxItems, scheduler,
+                (List<ValidationCoalescer.Item> items) -> {
+                    messages.incrementAndGet();
+                    delivered.addAndGet(items.size());
+                });
+
+        ExecutorService producers = Executors.newFixedThreadPool(PRODUCERS);
+        CountDownLatch done = new CountDownLatch(PRODUCERS);
+        long operations = (long) PRODUCERS * OPERATIONS_PER_PRODUCER;
+        long start = System.nanoTime();
+
+        for (int p = 0; p < PRODUCERS; p++) {
+            int producer = p;
+            producers.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < OPERATIONS_PER_PRODUCER; i++) {
+                    coalescer.add(new ValidationCoalescer.Item(
+                            producer + "-" + i,
+                            "ACC" + random.nextInt(HOT_ACCOUNTS),
+                            random.nextBoolean() ? "DEPOSIT" : "WITHDRAWAL",
+                            AMOUNT));
+                }
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(5, TimeUnit.MINUTES)).isTrue();
+        await().atMost(Duration.ofSeconds(10)).until(() -> delivered.get() == operations);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        producers.shutdown();
+        scheduler.dispose();
+
+        assertThat(coalescer.getOpenWindows()).isZero();
+        System.out.printf("%-18s ops/s=%,12.0f  mensajes/s=%,12.0f  ahorrados/s=%,12.0f  ops/mensaje=%6.2f%n",
+                label,
+                operations / seconds,
+                messages.get() / seconds,
+                (operations - messages.get()) / seconds,
+                (double) operations / messages.get());
+    }
+}
@@ -0,0 +1,105 @@
+package com.nttdata.transaction_service.infrastructure.adapter;
+
+import com.ettdata.avro.AccountValidationRequest;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaCompatibility;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * El schema v2 (amountMinorUnits) debe convivir con el v1 en ambos sentidos (compatibilidad FULL):
+ * account-service con v1 lee los mensajes nuevos y este servicio sigue leyendo los antiguos.
+ */
+class AccountValidationRequestSchemaTest {
+
+    private final Schema v1 = loadV1();
+    private final Schema v2 = AccountValidationRequest.getClassSchema();
+
+    @Test
+    void v2IsBackwardAndForwardCompatibleWithV1() {
+        assertThat(SchemaCompatibility.checkReaderWriterCompatibility(v2, v1).getType())
+                .isEqualTo(SchemaCompatibility.SchemaCompatibilityType.COMPATIBLE);
+        assertThat(SchemaCompatibility.checkReaderWriterCompatibility(v1, v2).getType())
+                .isEqualTo(SchemaCompatibility.SchemaCompatibilityType.COMPATIBLE);
+    }
+
+    @Test
+    void v1ReaderStillSeesLegacyDouble() throws IOException {
+        AccountValidationRequest request = request(new BigDecimal("150.25"));
+        request.setAmount(150.25);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+        new SpecificDatumWriter<>(AccountValidationRequest.class).write(request, encoder);
+        encoder.flush();
+
+        GenericRecord asV1 = new GenericDatumReader<GenericRecord>(v2, v1)
+                .read(null, DecoderFactory.get().binaryDecoder(out.toByteArray(), null));
+        assertThat(asV1.get("amount")).isEqualTo(150.25);
+    }
+
+    @Test
+    void v1MessageDecodesWithMinorUnitsDefault() throws IOException {
+        GenericRecord legacy = new GenericData.Record(v1);
+        legacy.put("transactionId", "tx-1");
+        legacy.put("accountNumber", "1234567890");
+        legacy.put("transactionType", "DEPOSIT");
+        legacy.put("amount", 10.5);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+        new GenericDatumWriter<GenericRecord>(v1).write(legacy, encoder);
+        encoder.flush();
+
+        AccountValidationRequest decoded = new SpecificDatumReader<AccountValidationRequest>(v1, v2)
+                .read(null, DecoderFactory.get().binaryDecoder(out.toByteArray(), null));
+        assertThat(decoded.getAmountMinorUnits()).isZero();
+        assertThat(decoded.getAmount()).isEqualTo(10.5);
+    }
+
+    @Test
+    void minorUnitsAreExact() {
+        assertThat(AccountValidationRecordFactory.toMinorUnits(new BigDecimal("150.25"))).isEqualTo(15025L);
+        assertThat(AccountValidationRecordFactory.toMinorUnits(new BigDecimal("0.1"))).isEqualTo(10L);
+        assertThat(AccountValidationRecordFactory.toMinorUnits(BigDecimal.TEN)).isEqualTo(1000L);
+        // 0.1 + 0.2 en double no es 0.3; en unidades mínimas sí
+        assertThat(AccountValidationRecordFactory.toMinorUnits(new BigDecimal("0.1").add(new BigDecimal("0.2"))))
+                .isEqualTo(30L);
+        assertThatThrownBy(() -> AccountValidationRecordFactory.toMinorUnits(new BigDecimal("1.001")))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    private static AccountValidationRequest request(BigDecimal amount) {
+        return AccountValidationRequest.newBuilder()
+                .setTransactionId("tx-1")
+                .setAccountNumber("1234567890")
+                .setTransactionType("WITHDRAWAL")
+                .setAmountMinorUnits(AccountValidationRecordFactory.toMinorUnits(amount))
+                .build();
+    }
+
+    private static Schema loadV1() {
+        try (InputStream in = AccountValidationRequestSchemaTest.class
+                .getResourceAsStream("/avro/AccountValidationRequest-v1.avsc")) {
+            return new Schema.Parser().parse(in);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.nttdata.transaction_service.infrastructure.adapter;
+
+import com.ettdata.avro.AccountValidationRequest;
+import com.ettdata.avro.AccountValidationResponse;
+import com.nttdata.transaction_service.infrastructure.config.AmountEncodingProperties;
+import com.nttdata.transaction_service.infrastructure.config.KafkaTopicProperties;
+import com.nttdata.transaction_service.infrastructure.config.ReplyRoutingProperties;
+import com.nttdata.transaction_service.infrastructure.handler.PendingResponseHandler;
+import com.nttdata.transaction_service.infrastructure.metrics.TransactionMetrics;
+import io.confluent.kafka.serializers.KafkaAvroDeserializer;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.BatchAcknowledgingMessageListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Dos réplicas comparten el topic de respuestas: cada una debe recibir la respuesta de sus
+ * propias solicitudes aunque account-service publique en cualquier partición.
+ */
+@EmbeddedKafka(partitions = 2, topics = {
+        KafkaReplyRoutingTest.REQUEST_TOPIC,
+        KafkaReplyRoutingTest.RESPONSE_TOPIC
+})
+class KafkaReplyRoutingTest {
+
+    static final String REQUEST_TOPIC = "account-validation-request";
+    static final String RESPONSE_TOPIC = "account-validation-response";
+    private static final String REGISTRY_URL = "mock://reply-routing-test";
+
+    private final List<KafkaMessageListenerContainer<?, ?>> containers = new ArrayList<>();
+
+    @AfterEach
+    void stopContainers() {
+        containers.forEach(KafkaMessageListenerContainer::stop);
+    }
+
+    @Test
+    void responsesReachTheIssuingInstance(EmbeddedKafkaBroker broker) {
+        startAccountServiceEcho(broker);
+        Replica first = startReplica("instance-a", broker);
+        Replica second = startReplica("instance-b", broker);
+
+        for (int i = 0; i < 20; i++) {
+            String firstId = "a-" + i;
+            String secondId = "b-" + i;
+            Mono<AccountValidationResponse> fromFirst =
+                    first.producer().sendDepositRequest(firstId, "1234567" + i, BigDecimal.TEN);
+            Mono<AccountValidationResponse> fromSecond =
+                    second.producer().sendWithdrawRequest(secondId, "7654321" + i, BigDecimal.ONE);
+
+            StepVerifier.create(Mono.zip(fromFirst, fromSecond))
+                    .assertNext(responses -> {
+                        assertThat(responses.getT1().getTransactionId().toString()).isEqualTo(firstId);
+                        assertThat(responses.getT2().getTransactionId().toString()).isEqualTo(secondId);
+                    })
+                    .expectComplete()
+                    .verify(Duration.ofSeconds(15));
+        }
+
+        assertThat(first.handler().getPendingCount()).isZero();
+        assertThat(second.handler().getPendingCount()).isZero();
+        assertThat(first.handler().getExpiredCount()).isZero();
+        assertThat(second.handler().getExpiredCount()).isZero();
+
+        // Cada réplica solo decodifica sus propias respuestas; las de la otra se descartan por header
+        assertThat(replyRecords(first, TransactionMetrics.REPLY_DECODED)).isEqualTo(20);
+        assertThat(replyRecords(second, TransactionMetrics.REPLY_DECODED)).isEqualTo(20);
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            assertThat(replyRecords(first, TransactionMetrics.REPLY_SKIPPED)).isEqualTo(20);
+            assertThat(replyRecords(second, TransactionMetrics.REPLY_SKIPPED)).isEqualTo(20);
+        });
+    }
+
+    // ========== HELPERS ==========
+
+    private Replica startReplica(String instanceId, EmbeddedKafkaBroker broker) {
+        PendingResponseHandler handler = new PendingResponseHandler(10, 100, 512);
+
+        KafkaTopicProperties topics = new KafkaTopicProperties();
+        topics.setAccountValidationRequest(REQUEST_TOPIC);
+        topics.setAccountValidationResponse(RESPONSE_TOPIC);
+
+        ReplyRoutingProperties replyRouting = new ReplyRoutingProperties();
+        replyRouting.setInstanceId(instanceId);
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TransactionMetrics metrics = new TransactionMetrics(registry);
+
+        KafkaAccountValidationProducer producer = new KafkaAccountValidationProducer(
+                new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(producerProps(broker))),
+                handler,
+                new AccountValidationRecordFactory(topics, replyRouting, new AmountEncodingProperties()),
+                metrics);
+        KafkaAccountValidationConsumer consumer = new KafkaAccountValidationConsumer(
+                handler, replyRouting, decoder(), metrics);
+
+        startContainer(broker, RESPONSE_TOPIC, "transaction-service-group-" + instanceId,
+                (BatchAcknowledgingMessageListener<String, byte[]>)
+                        consumer::consumeAccountValidationResponses);
+
+        return new Replica(handler, producer, registry);
+    }
+
+    private AccountValidationResponseDecoder decoder() {
+        return new AccountValidationResponseDecoder(Map.of(
+                "schema.registry.url", REGISTRY_URL,
+                "specific.avro.reader", true));
+    }
+
+    private double replyRecords(Replica replica, String result) {
+        Counter counter = replica.registry().find("transaction.reply.records").tag("result", result).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    /**
+     * Simula account-service: responde en el topic compartido devolviendo el header de instancia
+     */
+    private void startAccountServiceEcho(EmbeddedKafkaBroker broker) {
+        KafkaTemplate<String, Object> template =
+                new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(producerProps(broker)));
+
+        startContainer(broker, REQUEST_TOPIC, "account-service",
+                (MessageListener<String, AccountValidationRequest>) record -> {
+                    AccountValidationRequest request = record.value();
+                    ProducerRecord<String, Object> reply = new ProducerRecord<>(
+                            RESPONSE_TOPIC, request.getTransactionId().toString(),
+                            AccountValidationResponse.newBuilder()
+                                    .setTransactionId(request.getTransactionId())
+                                    .setAccountNumber(request.getAccountNumber())
+                                    .setCodResponse(200)
+                                    .setMessageResponse("OK")
+                                    .build());
+                    Header replyInstance = record.headers().lastHeader(ReplyRoutingProperties.REPLY_INSTANCE_HEADER);
+                    reply.headers()
+                            .add(replyInstance)
+                            .add(record.headers().lastHeader(KafkaHeaders.CORRELATION_ID));
+                    template.send(reply);
+                });
+    }
+
+    private void startContainer(EmbeddedKafkaBroker broker, String topic, String groupId,
+                                Object listener) {
+        Map<String, Object> props = KafkaTestUtils.consumerProps(groupId, "false", broker);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        // El listener de respuestas recibe bytes y decodifica bajo demanda
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG,
+                listener instanceof BatchAcknowledgingMessageListener<?, ?>
+                        ? ByteArrayDeserializer.class
+                        : KafkaAvroDeserializer.class);
+        props.put("schema.registry.url", REGISTRY_URL);
+        props.put("specific.avro.reader", true);
+
+        ContainerProperties containerProperties = new ContainerProperties(topic);
+        containerProperties.setMessageListener(listener);
+        if (listener instanceof BatchAcknowledgingMessageListener<?, ?>) {
+            containerProperties.setAckMode(ContainerProperties.AckMode.MANUAL);
+        }
+
+        KafkaMessageListenerContainer<String, Object> container = new KafkaMessageListenerContainer<>(
+                new DefaultKafkaConsumerFactory<>(props), containerProperties);
+        container.start();
+        containers.add(container);
+        ContainerTestUtils.waitForAssignment(container, broker.getPartitionsPerTopic());
+    }
+
+    private Map<String, Object> producerProps(EmbeddedKafkaBroker broker) {
+        Map<String, Object> props = KafkaTestUtils.producerProps(broker);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, KafkaAvroSerializer.class);
+        props.put("schema.registry.url", REGISTRY_URL);
+        return props;
+    }
+
+    private record Replica(PendingResponseHandler handler,
+                           KafkaAccountValidationProducer producer,
+                           SimpleMeterRegistry registry) {
+    }
+}
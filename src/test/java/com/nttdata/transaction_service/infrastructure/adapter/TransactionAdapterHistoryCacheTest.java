@@ -0,0 +1,139 @@
+package com.nttdata.transaction_service.infrastructure.adapter;
+
+import com.nttdata.transaction_service.application.port.out.AccountSummaryOutputPort;
+import com.nttdata.transaction_service.domain.model.Transaction;
+import com.nttdata.transaction_service.domain.model.enums.TransactionStatus;
+import com.nttdata.transaction_service.domain.model.enums.TransactionType;
+import com.nttdata.transaction_service.infrastructure.entity.TransactionEntity;
+import com.nttdata.transaction_service.infrastructure.handler.AccountEventBroadcaster;
+import com.nttdata.transaction_service.infrastructure.utils.UuidTransactionIdGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.nttdata.transaction_service.infrastructure.utils.TransactionDocumentConverters.ACCOUNT_NUMBER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * El historial cacheado por cuenta se invalida al confirmar cada escritura: la siguiente lectura
+ * vuelve a Mongo y ve la transacción nueva, también en las dos cuentas de una transferencia
+ */
+class TransactionAdapterHistoryCacheTest {
+
+    private static final String COLLECTION = "transactions";
+    private static final String SOURCE = "ACC0000001";
+    private static final String TARGET = "ACC0000002";
+
+    private final ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+    private final TransactionalOperator transactionalOperator = mock(TransactionalOperator.class);
+
+    // Equivalente en memoria de la colección de transacciones, por cuenta
+    private final Map<String, List<Transaction>> stored = new ConcurrentHashMap<>();
+    private final AtomicInteger historyQueries = new AtomicInteger();
+
+    private TransactionAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.getCollectionName(TransactionEntity.class)).thenReturn(COLLECTION);
+        when(mongoTemplate.find(any(Query.class), eq(Transaction.class), eq(COLLECTION)))
+                .thenAnswer(invocation -> {
+                    historyQueries.incrementAndGet();
+                    String accountNumber = invocation.<Query>getArgument(0).getQueryObject().getString(ACCOUNT_NUMBER);
+                    return Flux.fromIterable(List.copyOf(history(accountNumber)));
+                });
+        when(mongoTemplate.save(any(Transaction.class), eq(COLLECTION)))
+                .thenAnswer(invocation -> Mono.fromSupplier(() -> store(invocation.getArgument(0))));
+        when(mongoTemplate.insert(anyList(), eq(COLLECTION)))
+                .thenAnswer(invocation -> Flux.fromIterable(invocation.<List<Transaction>>getArgument(0))
+                        .map(this::store));
+        when(transactionalOperator.transactional(any(Mono.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        @SuppressWarnings("unchecked")
+        ObjectProvider<TransactionalOperator> operatorProvider = mock(ObjectProvider.class);
+        when(operatorProvider.getIfAvailable()).thenReturn(transactionalOperator);
+
+        adapter = new TransactionAdapter(mongoTemplate,
+                mock(AccountSummaryOutputPort.class),
+                mock(ValidationOutboxAdapter.class),
+                mock(AccountEventBroadcaster.class),
+                new UuidTransactionIdGenerator(),
+                operatorProvider,
+                new SimpleMeterRegistry(),
+                1000,
+                300);
+    }
+
+    @Test
+    void savedTransactionInvalidatesTheAccountHistory() {
+        assertThat(historyOf(SOURCE)).isEmpty();
+        assertThat(historyOf(SOURCE)).isEmpty();
+        assertThat(historyQueries).hasValue(1);
+
+        adapter.saveTransaction(transaction(SOURCE, TransactionType.DEPOSIT)).block(Duration.ofSeconds(1));
+
+        assertThat(historyOf(SOURCE)).hasSize(1);
+        assertThat(historyQueries).hasValue(2);
+    }
+
+    @Test
+    void transferInvalidatesBothAccounts() {
+        historyOf(SOURCE);
+        historyOf(TARGET);
+        assertThat(historyQueries).hasValue(2);
+
+        adapter.saveTransfer(transaction(SOURCE, TransactionType.TRANSFER),
+                transaction(TARGET, TransactionType.TRANSFER)).block(Duration.ofSeconds(1));
+
+        assertThat(historyOf(SOURCE)).hasSize(1);
+        assertThat(historyOf(TARGET)).hasSize(1);
+        assertThat(historyQueries).hasValue(4);
+    }
+
+    // ========== HELPERS ==========
+
+    private List<Transaction> historyOf(String accountNumber) {
+        return adapter.findAllTransactionByAccountNumber(accountNumber).collectList().block(Duration.ofSeconds(1));
+    }
+
+    private List<Transaction> history(String accountNumber) {
+        return stored.computeIfAbsent(accountNumber, key -> new CopyOnWriteArrayList<>());
+    }
+
+    private Transaction store(Transaction transaction) {
+        history(transaction.getAccountNumber()).add(transaction);
+        return transaction;
+    }
+
+    private static Transaction transaction(String accountNumber, TransactionType type) {
+        return Transaction.builder()
+                .transactionId(new UuidTransactionIdGenerator().nextId())
+                .accountNumber(accountNumber)
+                .transactionDate(LocalDateTime.now())
+                .transactionType(type)
+                .amount(new BigDecimal("10.00"))
+                .status(TransactionStatus.PENDING)
+                .build();
+    }
+}
@@ -0,0 +1,107 @@
+package com.nttdata.transaction_service.infrastructure.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nttdata.transaction_service.application.port.in.TransactionInputPort;
+import com.nttdata.transaction_service.application.port.out.IdempotencyOutputPort;
+import com.nttdata.transaction_service.domain.dto.TransactionResponse;
+import com.nttdata.transaction_service.domain.model.enums.TransactionStatus;
+import com.nttdata.transaction_service.infrastructure.dto.DepositRequest;
+import com.nttdata.transaction_service.infrastructure.handler.AdmissionLimiter;
+import com.nttdata.transaction_service.infrastructure.handler.IdempotencyHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Con "Prefer: respond-async" la operación responde 202 con Location hacia su estado, y esa
+ * Location resuelve el estado de la transacción aceptada
+ */
+class TransactionControllerAsyncTest {
+
+    private static final String TRANSACTION_ID = "TX-1";
+
+    private final TransactionInputPort transactions = mock(TransactionInputPort.class);
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        IdempotencyHandler idempotencyHandler = new IdempotencyHandler(mock(IdempotencyOutputPort.class),
+                transactions, new ObjectMapper(), new SimpleMeterRegistry(), 1000, 600);
+        client = WebTestClient.bindToController(new TransactionController(
+                        transactions, idempotencyHandler, mock(AdmissionLimiter.class), 15))
+                .build();
+    }
+
+    @Test
+    void asyncDepositIsAcceptedWithLocationToItsStatus() {
+        when(transactions.depositAsync(any(DepositRequest.class), any(Function.class)))
+                .thenReturn(Mono.just(response(202, TransactionStatus.PENDING)));
+        when(transactions.getTransactionStatus(TRANSACTION_ID))
+                .thenReturn(Mono.just(response(200, TransactionStatus.COMPLETED)));
+
+        URI location = client.post().uri("/api/transactions/deposit")
+                .header("Prefer", "respond-async")
+                .bodyValue(deposit())
+                .exchange()
+                .expectStatus().isAccepted()
+                .expectHeader().valueEquals("Preference-Applied", "respond-async")
+                .expectHeader().location("/api/transactions/status/" + TRANSACTION_ID)
+                .expectBody(TransactionResponse.class)
+                .value(response -> assertThat(response.getStatus()).isEqualTo(TransactionStatus.PENDING.name()))
+                .returnResult()
+                .getResponseHeaders()
+                .getLocation();
+
+        client.get().uri(location)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TransactionResponse.class)
+                .value(response -> {
+                    assertThat(response.getTransactionId()).isEqualTo(TRANSACTION_ID);
+                    assertThat(response.getStatus()).isEqualTo(TransactionStatus.COMPLETED.name());
+                });
+    }
+
+    @Test
+    void depositWithoutPreferStaysSynchronous() {
+        when(transactions.deposit(any(DepositRequest.class), any(Function.class)))
+                .thenReturn(Mono.just(response(200, TransactionStatus.COMPLETED)));
+
+        client.post().uri("/api/transactions/deposit")
+                .bodyValue(deposit())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(HttpHeaders.LOCATION)
+                .expectHeader().doesNotExist("Preference-Applied");
+    }
+
+    // ========== HELPERS ==========
+
+    private static DepositRequest deposit() {
+        return DepositRequest.builder()
+                .numberAccount("ACC0000001")
+                .amount(new BigDecimal("100.00"))
+                .build();
+    }
+
+    private static TransactionResponse response(int code, TransactionStatus status) {
+        return TransactionResponse.builder()
+                .codResponse(code)
+                .status(status.name())
+                .transactionId(TRANSACTION_ID)
+                .build();
+    }
+}
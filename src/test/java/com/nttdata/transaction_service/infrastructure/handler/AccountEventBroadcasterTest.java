@@ -0,0 +1,72 @@
+package com.nttdata.transaction_service.infrastructure.handler;
+
+import com.nttdata.transaction_service.domain.model.Transaction;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Un suscriptor SSE que se desconecta libera su lugar en el canal de la cuenta; con el último
+ * se elimina el canal y los eventos posteriores de la cuenta no se retienen
+ */
+class AccountEventBroadcasterTest {
+
+    private static final String ACCOUNT = "ACC0000001";
+
+    private final AccountEventBroadcaster broadcaster = new AccountEventBroadcaster(new SimpleMeterRegistry(), 16);
+
+    @Test
+    void cancelledSubscribersReleaseTheChannel() {
+        List<String> first = new CopyOnWriteArrayList<>();
+        List<String> second = new CopyOnWriteArrayList<>();
+
+        Disposable firstSubscription = broadcaster.subscribe(ACCOUNT)
+                .subscribe(transaction -> first.add(transaction.getTransactionId()));
+        Disposable secondSubscription = broadcaster.subscribe(ACCOUNT)
+                .subscribe(transaction -> second.add(transaction.getTransactionId()));
+        assertThat(broadcaster.getChannelCount()).isEqualTo(1);
+
+        broadcaster.publish(transaction("TX-1"));
+        firstSubscription.dispose();
+
+        // El canal sigue vivo para el suscriptor restante
+        assertThat(broadcaster.getChannelCount()).isEqualTo(1);
+        broadcaster.publish(transaction("TX-2"));
+
+        secondSubscription.dispose();
+        assertThat(broadcaster.getChannelCount()).isZero();
+        broadcaster.publish(transaction("TX-3"));
+
+        assertThat(first).containsExactly("TX-1");
+        assertThat(second).containsExactly("TX-1", "TX-2");
+    }
+
+    @Test
+    void resubscribingAfterReleaseOpensAFreshChannel() {
+        broadcaster.subscribe(ACCOUNT).subscribe().dispose();
+        assertThat(broadcaster.getChannelCount()).isZero();
+
+        List<String> received = new CopyOnWriteArrayList<>();
+        Disposable subscription = broadcaster.subscribe(ACCOUNT)
+                .subscribe(transaction -> received.add(transaction.getTransactionId()));
+        broadcaster.publish(transaction("TX-1"));
+        subscription.dispose();
+
+        assertThat(received).containsExactly("TX-1");
+        assertThat(broadcaster.getChannelCount()).isZero();
+    }
+
+    // ========== HELPERS ==========
+
+    private static Transaction transaction(String transactionId) {
+        return Transaction.builder()
+                .transactionId(transactionId)
+                .accountNumber(ACCOUNT)
+                .build();
+    }
+}
@@ -0,0 +1,178 @@
+package com.nttdata.transaction_service.infrastructure.handler;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Estrés con contención: muchas cuentas repartidas en pocos stripes, operaciones síncronas,
+ * asíncronas y fallidas mezcladas. Ninguna cuenta puede tener dos operaciones a la vez y cada
+ * cuenta debe ejecutar en el orden de llegada, sin serializar cuentas distintas.
+ */
+class AccountSequencerTest {
+
+    private static final int ACCOUNTS = 32;
+    private static final int OPERATIONS_PER_ACCOUNT = 500;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void sameAccountRunsOneAtATimeInArrivalOrder() throws InterruptedException {
+        AccountSequencer sequencer = new AccountSequencer(registry, true, 4);
+
+        Map<String, AtomicInteger> active = new ConcurrentHashMap<>();
+        Map<String, List<Integer>> executed = new ConcurrentHashMap<>();
+        AtomicInteger globalActive = new AtomicInteger();
+        AtomicInteger maxGlobalActive = new AtomicInteger();
+        AtomicBoolean overlap = new AtomicBoolean();
+        CountDownLatch finished = new CountDownLatch(ACCOUNTS * OPERATIONS_PER_ACCOUNT);
+
+        ExecutorService submitters = Executors.newFixedThreadPool(ACCOUNTS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int a = 0; a < ACCOUNTS; a++) {
+            String account = "ACC" + a;
+            active.put(account, new AtomicInteger());
+            executed.put(account, Collections.synchronizedList(new ArrayList<>()));
+
+            // Un hilo por cuenta: el orden de suscripción es el orden de llegada esperado
+            submitters.execute(() -> {
+                awaitQuietly(start);
+                for (int i = 0; i < OPERATIONS_PER_ACCOUNT; i++) {
+                    int sequence = i;
+                    Mono<Integer> operation = Mono.defer(() -> {
+                                if (active.get(account).incrementAndGet() != 1) {
+                                    overlap.set(true);
+                                }
+                                maxGlobalActive.accumulateAndGet(globalActive.incrementAndGet(), Math::max);
+                                executed.get(account).add(sequence);
+                                return work(sequence);
+                            })
+                            .doOnTerminate(() -> {
+                                globalActive.decrementAndGet();
+                                active.get(account).decrementAndGet();
+                            });
+
+                    sequencer.sequence(account, operation)
+                            .doFinally(signal -> finished.countDown())
+                            .subscribe(value -> { }, error -> { });
+                }
+            });
+        }
+
+        start.countDown();
+        assertThat(finished.await(60, TimeUnit.SECONDS)).isTrue();
+        submitters.shutdown();
+
+        assertThat(overlap).isFalse();
+        executed.forEach((account, order) -> {
+            assertThat(order).hasSize(OPERATIONS_PER_ACCOUNT);
+            assertThat(order).isSorted();
+        });
+        // Cuentas distintas del mismo stripe no se serializan entre sí
+        assertThat(maxGlobalActive.get()).isGreaterThan(1);
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            assertThat(sequencer.getActiveAccounts()).isZero();
+            for (int stripe = 0; stripe < sequencer.getStripeCount(); stripe++) {
+                assertThat(sequencer.getQueueDepth(stripe)).isZero();
+            }
+        });
+    }
+
+    @Test
+    void otherAccountsDoNotWaitForABlockedAccount() {
+        AccountSequencer sequencer = new AccountSequencer(registry, true, 1);
+        Sinks.Empty<Void> blocker = Sinks.empty();
+
+        Disposable blocked = sequencer.sequence("ACC-A", blocker.asMono()).subscribe();
+
+        StepVerifier.create(sequencer.sequence("ACC-B", Mono.just("ok")))
+                .expectNext("ok")
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+
+        blocked.dispose();
+    }
+
+    @Test
+    void cancelledWaiterKeepsTheOrderAndDepthGauge() {
+        AccountSequencer sequencer = new AccountSequencer(registry, true, 2);
+        Sinks.Empty<Void> first = Sinks.empty();
+        AtomicBoolean thirdStarted = new AtomicBoolean();
+
+        sequencer.sequence("ACC-1", first.asMono()).subscribe();
+        Disposable second = sequencer.sequence("ACC-1", Mono.never()).subscribe();
+        sequencer.sequence("ACC-1", Mono.fromRunnable(() -> thirdStarted.set(true))).subscribe();
+
+        assertThat(totalDepth()).isEqualTo(3.0);
+
+        // La segunda se cancela en espera: la tercera sigue detrás de la primera
+        second.dispose();
+        assertThat(thirdStarted).isFalse();
+
+        first.tryEmitEmpty();
+        await().atMost(Duration.ofSeconds(1)).untilTrue(thirdStarted);
+        await().atMost(Duration.ofSeconds(1)).untilAsserted(() -> {
+            assertThat(totalDepth()).isZero();
+            assertThat(sequencer.getActiveAccounts()).isZero();
+        });
+    }
+
+    @Test
+    void disabledSequencerReturnsTheOperationUnchanged() {
+        AccountSequencer sequencer = new AccountSequencer(registry, false, 4);
+        Mono<String> operation = Mono.just("ok");
+
+        assertThat(sequencer.sequence("ACC-1", operation)).isSameAs(operation);
+    }
+
+    // ========== HELPERS ==========
+
+    /**
+     * Mezcla de operaciones que terminan en el mismo hilo, en otro hilo y con error
+     */
+    private static Mono<Integer> work(int sequence) {
+        return switch (ThreadLocalRandom.current().nextInt(3)) {
+            case 0 -> Mono.just(sequence);
+            case 1 -> Mono.delay(Duration.ofNanos(ThreadLocalRandom.current().nextLong(200_000)))
+                    .thenReturn(sequence);
+            default -> Mono.error(new IllegalStateException("rechazada " + sequence));
+        };
+    }
+
+    private double totalDepth() {
+        return registry.find("transaction.sequencer.queue.depth").gauges().stream()
+                .mapToDouble(Gauge::value)
+                .sum();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
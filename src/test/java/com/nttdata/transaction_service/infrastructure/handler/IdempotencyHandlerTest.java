@@ -0,0 +1,262 @@
+package com.nttdata.transaction_service.infrastructure.handler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nttdata.transaction_service.application.port.in.TransactionInputPort;
+import com.nttdata.transaction_service.application.port.out.IdempotencyOutputPort;
+import com.nttdata.transaction_service.domain.dto.TransactionResponse;
+import com.nttdata.transaction_service.domain.model.IdempotencyRecord;
+import com.nttdata.transaction_service.domain.model.Transaction;
+import com.nttdata.transaction_service.domain.model.enums.TransactionStatus;
+import com.nttdata.transaction_service.infrastructure.dto.DepositRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Reintentos con Idempotency-Key: un timeout después de persistir no debe crear otra transacción
+ * (ni en la misma réplica ni en otra), una clave reutilizada con otro cuerpo se rechaza, un
+ * rechazo sin persistencia libera la clave y una reserva huérfana se retoma al vencer su lease
+ */
+class IdempotencyHandlerTest {
+
+    private static final String KEY = "retry-1";
+    private static final String TRANSACTION_ID = "TX-1";
+
+    private final InMemoryIdempotencyStore store = new InMemoryIdempotencyStore();
+    private final TransactionInputPort transactions = mock(TransactionInputPort.class);
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    void retryAfterTimeoutGetsTheOriginalTransactionStatus() {
+        TransactionResponse timedOut = statusResponse(504, TransactionStatus.TIMED_OUT);
+        when(transactions.getTransactionStatus(TRANSACTION_ID)).thenReturn(Mono.just(timedOut));
+        IdempotencyHandler handler = handler();
+
+        StepVerifier.create(handler.execute("deposit", KEY, deposit("100.00"), persistThenTimeout()))
+                .assertNext(response -> {
+                    assertThat(response.getCodResponse()).isEqualTo(503);
+                    assertThat(response.getTransactionId()).isEqualTo(TRANSACTION_ID);
+                })
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+
+        StepVerifier.create(handler.execute("deposit", KEY, deposit("100.00"), persistThenTimeout()))
+                .assertNext(response -> {
+                    assertThat(response.getTransactionId()).isEqualTo(TRANSACTION_ID);
+                    assertThat(response.getStatus()).isEqualTo(TransactionStatus.TIMED_OUT.name());
+                })
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+
+        assertThat(executions).hasValue(1);
+        assertThat(store.records.get("deposit:" + KEY).getTransactionId()).isEqualTo(TRANSACTION_ID);
+    }
+
+    @Test
+    void retryOnAnotherReplicaUsesTheMongoReservation() {
+        when(transactions.getTransactionStatus(TRANSACTION_ID))
+                .thenReturn(Mono.just(statusResponse(202, TransactionStatus.PENDING)));
+
+        handler().execute("deposit", KEY, deposit("100.00"), persistThenTimeout()).block(Duration.ofSeconds(1));
+
+        // Otra réplica: sin la memoria local, solo con la reserva en Mongo
+        StepVerifier.create(handler().execute("deposit", KEY, deposit("100.00"), persistThenTimeout()))
+                .assertNext(response -> assertThat(response.getTransactionId()).isEqualTo(TRANSACTION_ID))
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void retryAfterAsyncSubmitGetsTheSettledStatus() {
+        when(transactions.getTransactionStatus(TRANSACTION_ID))
+                .thenReturn(Mono.just(statusResponse(200, TransactionStatus.COMPLETED)));
+        Function<Function<Transaction, Mono<Void>>, Mono<TransactionResponse>> accepted = onPersisted ->
+                Mono.defer(() -> {
+                    executions.incrementAndGet();
+                    return onPersisted.apply(Transaction.builder().transactionId(TRANSACTION_ID).build())
+                            .thenReturn(statusResponse(202, TransactionStatus.PENDING));
+                });
+
+        IdempotencyHandler handler = handler();
+        StepVerifier.create(handler.execute("deposit", KEY, deposit("100.00"), accepted))
+                .assertNext(response -> assertThat(response.getCodResponse()).isEqualTo(202))
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+
+        // Ya liquidada: tanto en la misma réplica como en otra el reintento ve el estado actual
+        for (IdempotencyHandler retry : List.of(handler, handler())) {
+            StepVerifier.create(retry.execute("deposit", KEY, deposit("100.00"), accepted))
+                    .assertNext(response -> assertThat(response.getStatus())
+                            .isEqualTo(TransactionStatus.COMPLETED.name()))
+                    .expectComplete()
+                    .verify(Duration.ofSeconds(1));
+        }
+
+        assertThat(executions).hasValue(1);
+        assertThat(store.records.get("deposit:" + KEY).getResponse()).isNull();
+    }
+
+    @Test
+    void reusedKeyWithDifferentBodyIsRejected() {
+        IdempotencyHandler handler = handler();
+        handler.execute("deposit", KEY, deposit("100.00"), persistThenTimeout()).block(Duration.ofSeconds(1));
+
+        StepVerifier.create(handler.execute("deposit", KEY, deposit("250.00"), persistThenTimeout()))
+                .assertNext(response -> assertThat(response.getCodResponse()).isEqualTo(422))
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+
+        StepVerifier.create(handler().execute("deposit", KEY, deposit("250.00"), persistThenTimeout()))
+                .assertNext(response -> assertThat(response.getCodResponse()).isEqualTo(422))
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+
+        assertThat(executions).hasValue(1);
+        verify(transactions, never()).getTransactionStatus(TRANSACTION_ID);
+    }
+
+    @Test
+    void rejectionBeforePersistingReleasesTheKey() {
+        IdempotencyHandler handler = handler();
+        Function<Function<Transaction, Mono<Void>>, Mono<TransactionResponse>> rejected = onPersisted -> {
+            executions.incrementAndGet();
+            return Mono.just(TransactionResponse.error(429, "Capacidad agotada"));
+        };
+
+        handler.execute("deposit", KEY, deposit("100.00"), rejected).block(Duration.ofSeconds(1));
+        handler.execute("deposit", KEY, deposit("100.00"), rejected).block(Duration.ofSeconds(1));
+
+        assertThat(executions).hasValue(2);
+        assertThat(store.records).isEmpty();
+    }
+
+    @Test
+    void orphanedReservationIsTakenOverOnceItsLeaseExpires() {
+        when(transactions.getTransactionStatus(TRANSACTION_ID))
+                .thenReturn(Mono.just(statusResponse(504, TransactionStatus.TIMED_OUT)));
+
+        // Réplica que reservó la clave y cayó antes de persistir
+        handler().execute("deposit", KEY, deposit("100.00"), onPersisted -> Mono.never()).subscribe();
+
+        StepVerifier.create(handler().execute("deposit", KEY, deposit("100.00"), persistThenTimeout()))
+                .assertNext(response -> assertThat(response.getCodResponse()).isEqualTo(409))
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+
+        store.expireLease("deposit:" + KEY);
+
+        StepVerifier.create(handler().execute("deposit", KEY, deposit("100.00"), persistThenTimeout()))
+                .assertNext(response -> assertThat(response.getTransactionId()).isEqualTo(TRANSACTION_ID))
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+
+        assertThat(executions).hasValue(1);
+        assertThat(store.records.get("deposit:" + KEY).getTransactionId()).isEqualTo(TRANSACTION_ID);
+    }
+
+    // ========== HELPERS ==========
+
+    private IdempotencyHandler handler() {
+        return new IdempotencyHandler(store, transactions, new ObjectMapper(), new SimpleMeterRegistry(), 1000, 600);
+    }
+
+    /**
+     * Persiste la transacción y termina sin respuesta de account-service
+     */
+    private Function<Function<Transaction, Mono<Void>>, Mono<TransactionResponse>> persistThenTimeout() {
+        return onPersisted -> Mono.defer(() -> {
+            executions.incrementAndGet();
+            return onPersisted.apply(Transaction.builder().transactionId(TRANSACTION_ID).build())
+                    .thenReturn(TransactionResponse.error(503, "Servicio de cuentas no disponible"));
+        });
+    }
+
+    private static DepositRequest deposit(String amount) {
+        return DepositRequest.builder()
+                .numberAccount("ACC-1")
+                .amount(new BigDecimal(amount))
+                .build();
+    }
+
+    private static TransactionResponse statusResponse(int code, TransactionStatus status) {
+        return TransactionResponse.builder()
+                .codResponse(code)
+                .status(status.name())
+                .transactionId(TRANSACTION_ID)
+                .build();
+    }
+
+    /**
+     * Equivalente en memoria de idempotency_keys (insert con _id único; una reserva sin transacción
+     * y con el lease vencido se retoma)
+     */
+    private static final class InMemoryIdempotencyStore implements IdempotencyOutputPort {
+
+        private final Map<String, IdempotencyRecord> records = new ConcurrentHashMap<>();
+        private final Set<String> expiredLeases = ConcurrentHashMap.newKeySet();
+
+        void expireLease(String key) {
+            expiredLeases.add(key);
+        }
+
+        @Override
+        public Mono<Boolean> reserve(String key, String requestHash) {
+            return Mono.fromSupplier(() -> {
+                IdempotencyRecord reservation = IdempotencyRecord.builder().key(key).requestHash(requestHash).build();
+                IdempotencyRecord existing = records.putIfAbsent(key, reservation);
+                if (existing == null) {
+                    return true;
+                }
+                boolean orphaned = existing.getTransactionId() == null && existing.getResponse() == null;
+                return orphaned && expiredLeases.remove(key) && records.replace(key, existing, reservation);
+            });
+        }
+
+        @Override
+        public Mono<IdempotencyRecord> find(String key) {
+            return Mono.justOrEmpty(records.get(key));
+        }
+
+        @Override
+        public Mono<Void> bindTransaction(String key, String transactionId) {
+            return Mono.fromRunnable(() -> records.computeIfPresent(key, (k, record) -> {
+                if (record.getTransactionId() == null) {
+                    record.setTransactionId(transactionId);
+                }
+                return record;
+            }));
+        }
+
+        @Override
+        public Mono<Void> complete(String key, TransactionResponse response) {
+            return Mono.fromRunnable(() -> records.computeIfPresent(key, (k, record) -> {
+                record.setResponse(response);
+                return record;
+            }));
+        }
+
+        @Override
+        public Mono<Void> release(String key) {
+            return Mono.fromRunnable(() -> records.computeIfPresent(key, (k, record) ->
+                    record.getTransactionId() == null && record.getResponse() == null ? null : record));
+        }
+    }
+}
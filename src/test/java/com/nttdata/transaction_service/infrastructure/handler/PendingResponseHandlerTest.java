@@ -0,0 +1,80 @@
+package com.nttdata.transaction_service.infrastructure.handler;
+
+import com.ettdata.avro.AccountValidationResponse;
+import com.nttdata.transaction_service.domain.error.AccountValidationTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Deadlines en el timer wheel: una espera sin respuesta falla con AccountValidationTimeoutException,
+ * una respuesta a tiempo cancela su expiración y una cancelación libera la entrada
+ */
+class PendingResponseHandlerTest {
+
+    private static final String TRANSACTION_ID = "TX-1";
+
+    private final PendingResponseHandler handler = new PendingResponseHandler(1, 10, 64);
+
+    @AfterEach
+    void tearDown() {
+        handler.shutdown();
+    }
+
+    @Test
+    void unansweredValidationExpiresWithTimeout() {
+        StepVerifier.create(pending(TRANSACTION_ID))
+                .expectError(AccountValidationTimeoutException.class)
+                .verify(Duration.ofSeconds(3));
+
+        assertThat(handler.getPendingCount()).isZero();
+        assertThat(handler.getExpiredCount()).isEqualTo(1);
+    }
+
+    @Test
+    void replyBeforeDeadlineCancelsTheExpiry() throws InterruptedException {
+        StepVerifier.create(pending(TRANSACTION_ID))
+                .then(() -> assertThat(handler.complete(TRANSACTION_ID, response(TRANSACTION_ID))).isTrue())
+                .assertNext(response -> assertThat(response.getCodResponse()).isEqualTo(200))
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+
+        // Pasado el deadline original la entrada ya no existe: no cuenta como expirada
+        Thread.sleep(1500);
+        assertThat(handler.getExpiredCount()).isZero();
+        assertThat(handler.complete(TRANSACTION_ID, response(TRANSACTION_ID))).isFalse();
+    }
+
+    @Test
+    void cancelledWaitReleasesTheEntry() {
+        Disposable subscription = pending(TRANSACTION_ID).subscribe(response -> { }, error -> { });
+        assertThat(handler.isPending(TRANSACTION_ID)).isTrue();
+
+        subscription.dispose();
+
+        await().atMost(Duration.ofSeconds(1)).until(() -> handler.getPendingCount() == 0);
+        assertThat(handler.isPending(TRANSACTION_ID)).isFalse();
+    }
+
+    // ========== HELPERS ==========
+
+    private Mono<AccountValidationResponse> pending(String transactionId) {
+        return Mono.create(sink -> handler.register(transactionId, sink));
+    }
+
+    private static AccountValidationResponse response(String transactionId) {
+        return AccountValidationResponse.newBuilder()
+                .setTransactionId(transactionId)
+                .setAccountNumber("ACC0000001")
+                .setCodResponse(200)
+                .setMessageResponse("OK")
+                .build();
+    }
+}